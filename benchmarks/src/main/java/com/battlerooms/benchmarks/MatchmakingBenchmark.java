@@ -0,0 +1,65 @@
+package com.battlerooms.benchmarks;
+
+import com.battlerooms.managers.MatchmakingEngine;
+import com.battlerooms.managers.QueueSnapshot;
+import com.battlerooms.models.BattleRoom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One matchmaking pairing pass over a queue snapshot, as run in the background once a second
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchmakingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int players;
+
+    @Param({"1v1", "2v2", "ffa"})
+    public String type;
+
+    private MatchmakingEngine engine;
+    private QueueSnapshot snapshot;
+
+    @Setup
+    public void setup() {
+        engine = new MatchmakingEngine(100, 10, 800, 25);
+
+        // Ratings spread like a real ladder, with players who joined over the last minute
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        long[] mostBits = new long[players];
+        long[] leastBits = new long[players];
+        double[] ratings = new double[players];
+        long[] joinedAt = new long[players];
+        for (int i = 0; i < players; i++) {
+            mostBits[i] = random.nextLong();
+            leastBits[i] = random.nextLong();
+            ratings[i] = 1000 + random.nextGaussian() * 200;
+            joinedAt[i] = now - random.nextInt(60_000);
+        }
+        snapshot = new QueueSnapshot(BattleRoom.RoomType.fromString(type), now, mostBits, leastBits, ratings, joinedAt);
+    }
+
+    @Benchmark
+    public int[] pair() {
+        return engine.pair(snapshot);
+    }
+}
@@ -0,0 +1,83 @@
+package com.battlerooms.benchmarks;
+
+import com.battlerooms.managers.RoomManager;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The block-crossing flow of PlayerMoveListener: every invocation moves one player one block
+ * along a path that leads into a room and back out again, or wanders around far from any room
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoveEventBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int rooms;
+
+    @Param({"50", "500"})
+    public int players;
+
+    private RoomManager roomManager;
+    private Player[] onlinePlayers;
+    private Location[][] paths;
+    private Location[][] wildernessPaths;
+    private int[] steps;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SyntheticArena arena = new SyntheticArena(rooms);
+        roomManager = arena.roomManager;
+        onlinePlayers = arena.players(players);
+        paths = new Location[players][];
+        wildernessPaths = new Location[players][];
+        steps = new int[players];
+
+        for (int i = 0; i < players; i++) {
+            paths[i] = arena.path(i % rooms);
+            wildernessPaths[i] = arena.wildernessPath(i);
+            // Spread the players along their paths so they do not all cross gates at the same time
+            steps[i] = i % SyntheticArena.PATH_LENGTH;
+        }
+    }
+
+    @Benchmark
+    public void handlePlayerMove() {
+        move(paths);
+    }
+
+    @Benchmark
+    public void handlePlayerMoveFarFromRooms() {
+        move(wildernessPaths);
+    }
+
+    private void move(Location[][] playerPaths) {
+        int player = next;
+        next = next + 1 == onlinePlayers.length ? 0 : next + 1;
+
+        Location[] path = playerPaths[player];
+        int step = steps[player];
+        int following = step + 1 == path.length ? 0 : step + 1;
+        steps[player] = following;
+
+        roomManager.handlePlayerMove(onlinePlayers[player], path[step], path[following]);
+    }
+}
@@ -0,0 +1,61 @@
+package com.battlerooms.benchmarks;
+
+import com.battlerooms.managers.RoomManager;
+import com.battlerooms.models.BattleRoom;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Player to room lookups as done on every command, death and quit
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayerLookupBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int rooms;
+
+    @Param({"50", "500"})
+    public int players;
+
+    private RoomManager roomManager;
+    private Player[] onlinePlayers;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SyntheticArena arena = new SyntheticArena(rooms);
+        roomManager = arena.roomManager;
+        onlinePlayers = arena.players(players);
+
+        // Put one player into every room that still has space, the rest stay outside
+        for (int i = 0; i < onlinePlayers.length && i < rooms; i++) {
+            BattleRoom room = arena.rooms[i];
+            if (room.getState() == BattleRoom.RoomState.WAITING) {
+                roomManager.handlePlayerEnterRoom(onlinePlayers[i], room);
+            }
+        }
+    }
+
+    @Benchmark
+    public BattleRoom getPlayerRoom() {
+        next = next + 1 == onlinePlayers.length ? 0 : next + 1;
+        return roomManager.getPlayerRoom(onlinePlayers[next]);
+    }
+}
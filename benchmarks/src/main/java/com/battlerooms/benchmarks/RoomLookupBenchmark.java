@@ -0,0 +1,73 @@
+package com.battlerooms.benchmarks;
+
+import com.battlerooms.managers.RoomManager;
+import com.battlerooms.models.BattleRoom;
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Location based lookups: room at a location and block protection checks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomLookupBenchmark {
+
+    private static final int PROBES = 4096;
+
+    @Param({"10", "100", "1000"})
+    public int rooms;
+
+    private RoomManager roomManager;
+    private BattleRoom room;
+    private Location[] probes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        SyntheticArena arena = new SyntheticArena(rooms);
+        roomManager = arena.roomManager;
+        room = arena.rooms[rooms / 2];
+        probes = arena.probes(PROBES, 42L);
+    }
+
+    private Location nextProbe() {
+        next = (next + 1) & (PROBES - 1);
+        return probes[next];
+    }
+
+    @Benchmark
+    public BattleRoom getRoomAtLocation() {
+        return roomManager.getRoomAtLocation(nextProbe());
+    }
+
+    @Benchmark
+    public boolean isProtectedBlock() {
+        return roomManager.isProtectedBlock(nextProbe());
+    }
+
+    @Benchmark
+    public boolean isInRoom() {
+        return room.isInRoom(nextProbe());
+    }
+
+    @Benchmark
+    public boolean isOnBoundary() {
+        return room.isOnBoundary(nextProbe());
+    }
+}
@@ -0,0 +1,66 @@
+package com.battlerooms.benchmarks;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+/**
+ * Offline stand-ins for Bukkit types so the benchmarks run without a server.
+ * Every method that is not explicitly answered returns the default value of its return type.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    static World world(String name) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        return proxy(World.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getName" -> name;
+            case "getUID" -> uid;
+            case "getMinHeight" -> -64;
+            case "getMaxHeight" -> 320;
+            default -> common(proxy, method, args, uid);
+        });
+    }
+
+    static Player player(String name, World world) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        return proxy(Player.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getName" -> name;
+            case "getUniqueId" -> uid;
+            case "getWorld" -> world;
+            case "isOnline" -> true;
+            default -> common(proxy, method, args, uid);
+        });
+    }
+
+    private static Object common(Object proxy, Method method, Object[] args, UUID identity) {
+        return switch (method.getName()) {
+            case "hashCode" -> identity.hashCode();
+            case "equals" -> proxy == args[0];
+            case "toString" -> "Stub[" + identity + "]";
+            default -> defaultValue(method.getReturnType());
+        };
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0F;
+        return 0D;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
@@ -0,0 +1,136 @@
+package com.battlerooms.benchmarks;
+
+import com.battlerooms.managers.RoomManager;
+import com.battlerooms.models.BattleRoom;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.Random;
+
+/**
+ * A synthetic world with rooms laid out on a grid and players walking in and out of them.
+ * Each room is a 16x8x16 hollow box with a 2x3 gate in its north wall, spaced 48 blocks apart.
+ */
+final class SyntheticArena {
+
+    static final int ROOM_SIZE = 16;
+    static final int ROOM_HEIGHT = 8;
+    static final int SPACING = 48;
+    static final int FLOOR_Y = 64;
+    static final int PATH_LENGTH = 64;
+
+    final World world;
+    final World otherWorld;
+    final RoomManager roomManager;
+    final BattleRoom[] rooms;
+    final int gridSide;
+
+    SyntheticArena(int roomCount) {
+        this.world = Stubs.world("arena");
+        this.otherWorld = Stubs.world("survival");
+        this.roomManager = new RoomManager(null, null);
+        this.rooms = new BattleRoom[roomCount];
+        this.gridSide = (int) Math.ceil(Math.sqrt(roomCount));
+
+        for (int i = 0; i < roomCount; i++) {
+            int x = originX(i);
+            int z = originZ(i);
+            Location pos1 = new Location(world, x, FLOOR_Y, z);
+            Location pos2 = new Location(world, x + ROOM_SIZE - 1, FLOOR_Y + ROOM_HEIGHT - 1, z + ROOM_SIZE - 1);
+            Location gate1 = new Location(world, x + 7, FLOOR_Y + 1, z);
+            Location gate2 = new Location(world, x + 8, FLOOR_Y + 3, z);
+            rooms[i] = new BattleRoom("room" + i, BattleRoom.RoomType.ONE_V_ONE, world.getName(),
+                    pos1, pos2, gate1, gate2);
+            roomManager.addRoom(rooms[i]);
+        }
+    }
+
+    int originX(int room) {
+        return (room % gridSide) * SPACING;
+    }
+
+    int originZ(int room) {
+        return (room / gridSide) * SPACING;
+    }
+
+    /**
+     * Probe locations: a quarter inside room interiors, a quarter on room shells,
+     * a quarter between rooms and a quarter in a world without any rooms
+     */
+    Location[] probes(int count, long seed) {
+        Random random = new Random(seed);
+        Location[] probes = new Location[count];
+        int extent = gridSide * SPACING;
+
+        for (int i = 0; i < count; i++) {
+            int room = random.nextInt(rooms.length);
+            int x = originX(room);
+            int z = originZ(room);
+            probes[i] = switch (i & 3) {
+                case 0 -> new Location(world, x + 1 + random.nextInt(ROOM_SIZE - 2),
+                        FLOOR_Y + 1 + random.nextInt(ROOM_HEIGHT - 2), z + 1 + random.nextInt(ROOM_SIZE - 2));
+                case 1 -> new Location(world, x + random.nextInt(ROOM_SIZE), FLOOR_Y, z + random.nextInt(ROOM_SIZE));
+                case 2 -> new Location(world, x + ROOM_SIZE + random.nextInt(SPACING - ROOM_SIZE),
+                        FLOOR_Y + 1, z + random.nextInt(SPACING));
+                default -> new Location(otherWorld, random.nextInt(extent), FLOOR_Y + random.nextInt(32),
+                        random.nextInt(extent));
+            };
+        }
+        return probes;
+    }
+
+    /**
+     * A looping path for one player in the world without rooms, wandering back and forth across several chunks
+     */
+    Location[] wildernessPath(int player) {
+        int x = player * 37;
+        int z = player * 53;
+        Location[] path = new Location[PATH_LENGTH];
+        int half = PATH_LENGTH / 2;
+
+        for (int step = 0; step < PATH_LENGTH; step++) {
+            int distance = step < half ? step : PATH_LENGTH - 1 - step;
+            path[step] = new Location(otherWorld, x + distance + 0.5, FLOOR_Y + 1, z + 0.5);
+        }
+        return path;
+    }
+
+    /**
+     * A looping path for one player: approach the gate of a room, walk in, cross the room and walk back out
+     */
+    Location[] path(int room) {
+        int x = originX(room) + 7;
+        int z = originZ(room);
+        Location[] path = new Location[PATH_LENGTH];
+        int half = PATH_LENGTH / 2;
+
+        for (int step = 0; step < PATH_LENGTH; step++) {
+            // Start 16 blocks north of the gate, walk to the far side of the room and turn around
+            int distance = step < half ? step : PATH_LENGTH - 1 - step;
+            path[step] = new Location(world, x + 0.5, FLOOR_Y + 1, z - 16 + distance + 0.5);
+        }
+        return path;
+    }
+
+    /**
+     * Create players, each assigned to walk through one room.
+     * Rooms that would fill up are put on cooldown so no match starts during the benchmark.
+     */
+    Player[] players(int count) {
+        Player[] players = new Player[count];
+        int[] assigned = new int[rooms.length];
+
+        for (int i = 0; i < count; i++) {
+            players[i] = Stubs.player("player" + i, world);
+            assigned[i % rooms.length]++;
+        }
+
+        for (int i = 0; i < rooms.length; i++) {
+            if (assigned[i] >= rooms[i].getType().getRequiredPlayers()) {
+                rooms[i].setState(BattleRoom.RoomState.COOLDOWN);
+            }
+        }
+        return players;
+    }
+}
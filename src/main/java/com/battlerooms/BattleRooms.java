@@ -1,9 +1,15 @@
 package com.battlerooms;
 
 import com.battlerooms.commands.BattleRoomsCommand;
+import com.battlerooms.history.MatchHistory;
 import com.battlerooms.listeners.*;
 import com.battlerooms.managers.ConfigManager;
+import com.battlerooms.managers.InstanceManager;
+import com.battlerooms.managers.QueueManager;
 import com.battlerooms.managers.RoomManager;
+import com.battlerooms.metrics.MetricsRegistry;
+import com.battlerooms.network.ArenaNetwork;
+import com.battlerooms.ratings.PlayerRatings;
 import org.bukkit.plugin.java.JavaPlugin;
 
 /**
@@ -12,18 +18,46 @@ import org.bukkit.plugin.java.JavaPlugin;
  */
 public class BattleRooms extends JavaPlugin {
 
+    private MetricsRegistry metrics;
     private ConfigManager configManager;
     private RoomManager roomManager;
+    private QueueManager queueManager;
+    private InstanceManager instanceManager;
+    private MatchHistory matchHistory;
+    private PlayerRatings ratings;
+    private ArenaNetwork network; // Null unless the arena network is enabled
 
     @Override
     public void onEnable() {
+        metrics = new MetricsRegistry();
+
         // Initialize managers
         configManager = new ConfigManager(this);
         configManager.loadConfig();
 
+        matchHistory = new MatchHistory(this);
+        matchHistory.start();
+
+        ratings = new PlayerRatings(this);
+        ratings.start();
+
+        if (configManager.isNetworkEnabled()) {
+            network = new ArenaNetwork(this);
+        }
+
         roomManager = new RoomManager(this, configManager);
         roomManager.loadRooms();
 
+        queueManager = new QueueManager(this);
+        queueManager.start();
+
+        instanceManager = new InstanceManager(this);
+        instanceManager.start();
+
+        if (network != null) {
+            network.start();
+        }
+
         // Register commands
         BattleRoomsCommand commandExecutor = new BattleRoomsCommand(this);
         getCommand("battlerooms").setExecutor(commandExecutor);
@@ -33,17 +67,48 @@ public class BattleRooms extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new PlayerMoveListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerDeathListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerQuitListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerReturnListener(this), this);
         getServer().getPluginManager().registerEvents(new CommandBlockListener(this), this);
         getServer().getPluginManager().registerEvents(new BlockProtectionListener(this), this);
+        getServer().getPluginManager().registerEvents(new ArenaChangeListener(this), this);
+        getServer().getPluginManager().registerEvents(new WorldListener(this), this);
+        if (network != null) {
+            getServer().getPluginManager().registerEvents(new NetworkListener(this), this);
+        }
 
         getLogger().info("BattleRooms has been enabled!");
     }
 
     @Override
     public void onDisable() {
+        if (network != null) {
+            network.shutdown();
+        }
+        if (queueManager != null) {
+            queueManager.shutdown();
+        }
+        if (instanceManager != null) {
+            instanceManager.shutdown();
+        }
+        if (roomManager != null) {
+            roomManager.shutdown();
+        }
+        if (matchHistory != null) {
+            matchHistory.shutdown();
+        }
+        if (ratings != null) {
+            ratings.shutdown();
+        }
+        if (configManager != null) {
+            configManager.shutdown();
+        }
         getLogger().info("BattleRooms has been disabled!");
     }
 
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
     public ConfigManager getConfigManager() {
         return configManager;
     }
@@ -51,4 +116,27 @@ public class BattleRooms extends JavaPlugin {
     public RoomManager getRoomManager() {
         return roomManager;
     }
+
+    public QueueManager getQueueManager() {
+        return queueManager;
+    }
+
+    public InstanceManager getInstanceManager() {
+        return instanceManager;
+    }
+
+    public MatchHistory getMatchHistory() {
+        return matchHistory;
+    }
+
+    public PlayerRatings getRatings() {
+        return ratings;
+    }
+
+    /**
+     * Get the arena network, or null if it is disabled
+     */
+    public ArenaNetwork getNetwork() {
+        return network;
+    }
 }
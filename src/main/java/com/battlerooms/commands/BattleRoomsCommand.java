@@ -1,17 +1,33 @@
 package com.battlerooms.commands;
 
 import com.battlerooms.BattleRooms;
+import com.battlerooms.history.MatchHistory;
+import com.battlerooms.history.MatchRecord;
+import com.battlerooms.managers.QueueManager;
 import com.battlerooms.managers.RoomManager;
+import com.battlerooms.managers.RoomTimerWheel;
+import com.battlerooms.metrics.MetricsRegistry;
+import com.battlerooms.models.ArenaSnapshot;
 import com.battlerooms.models.BattleRoom;
+import com.battlerooms.network.ArenaNetwork;
+import com.battlerooms.network.RemoteRoom;
+import com.battlerooms.ratings.PlayerRatings;
+import com.battlerooms.ratings.RatingEntry;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -21,16 +37,38 @@ public class BattleRoomsCommand implements CommandExecutor, TabCompleter {
 
     private final BattleRooms plugin;
     private final RoomManager roomManager;
+    private final QueueManager queueManager;
 
     private static final List<String> SUBCOMMANDS = Arrays.asList(
-            "create", "setpos1", "setpos2", "setgate1", "setgate2", "save", "delete", "list", "reload", "cancel"
+            "create", "setpos1", "setpos2", "setgate1", "setgate2", "save", "delete", "list", "reload", "cancel", "stats", "queue", "store", "history", "top", "rank", "network"
     );
 
-    private static final List<String> ROOM_TYPES = Arrays.asList("1v1", "2v2");
+    // Subcommands open to regular players, with the permission each of them needs
+    private static final Map<String, String> PLAYER_SUBCOMMANDS = Map.of(
+            "queue", "battlerooms.queue",
+            "history", "battlerooms.history",
+            "top", "battlerooms.ratings",
+            "rank", "battlerooms.ratings"
+    );
+
+    private static final List<String> ROOM_TYPES = Arrays.asList("1v1", "2v2", "3v3", "4v4", "ffa");
+
+    private static final List<String> QUEUE_OPTIONS = Arrays.asList("1v1", "2v2", "3v3", "4v4", "ffa", "leave");
+
+    private static final List<String> HISTORY_TARGETS = Arrays.asList("player", "room");
+
+    private static final int HISTORY_LINES = 10;
+
+    private static final int TOP_PAGE_SIZE = 10;
+
+    private static final List<String> STORE_ACTIONS = Arrays.asList("migrate", "export");
+
+    private static final List<String> STATS_ACTIONS = Arrays.asList("dump", "reset", "verify");
 
     public BattleRoomsCommand(BattleRooms plugin) {
         this.plugin = plugin;
         this.roomManager = plugin.getRoomManager();
+        this.queueManager = plugin.getQueueManager();
     }
 
     @Override
@@ -40,8 +78,40 @@ public class BattleRoomsCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
+        // The queue, match history and ratings are open to regular players, everything else is for admins
+        if (args.length > 0 && PLAYER_SUBCOMMANDS.containsKey(args[0].toLowerCase())) {
+            String subCommand = args[0].toLowerCase();
+            if (!player.hasPermission(PLAYER_SUBCOMMANDS.get(subCommand))) {
+                player.sendMessage("§cYou don't have permission to use this command!");
+                return true;
+            }
+            switch (subCommand) {
+                case "queue" -> handleQueue(player, args);
+                case "history" -> handleHistory(player, args);
+                case "top" -> handleTop(player, args);
+                case "rank" -> handleRank(player, args);
+            }
+            return true;
+        }
+
         if (!player.hasPermission("battlerooms.admin")) {
-            player.sendMessage("§cYou don't have permission to use this command!");
+            boolean helped = false;
+            if (player.hasPermission("battlerooms.queue")) {
+                player.sendMessage("§e/battlerooms queue <1v1|2v2|3v3|4v4|ffa|leave> §7- Join or leave the matchmaking queue");
+                helped = true;
+            }
+            if (player.hasPermission("battlerooms.history")) {
+                player.sendMessage("§e/battlerooms history [player <name>|room <name>] §7- Show recent matches");
+                helped = true;
+            }
+            if (player.hasPermission("battlerooms.ratings")) {
+                player.sendMessage("§e/battlerooms top <1v1|2v2|3v3|4v4|ffa> [page] §7- Show the best rated players");
+                player.sendMessage("§e/battlerooms rank [player] §7- Show ratings and ranks of a player");
+                helped = true;
+            }
+            if (!helped) {
+                player.sendMessage("§cYou don't have permission to use this command!");
+            }
             return true;
         }
 
@@ -63,6 +133,9 @@ public class BattleRoomsCommand implements CommandExecutor, TabCompleter {
             case "delete" -> handleDelete(player, args);
             case "list" -> handleList(player);
             case "reload" -> handleReload(player);
+            case "stats" -> handleStats(player, args);
+            case "network" -> handleNetwork(player);
+            case "store" -> handleStore(player, args);
             default -> sendHelp(player);
         }
 
@@ -71,7 +144,7 @@ public class BattleRoomsCommand implements CommandExecutor, TabCompleter {
 
     private void sendHelp(Player player) {
         player.sendMessage("§6§l=== BattleRooms Commands ===");
-        player.sendMessage("§e/battlerooms create <1v1|2v2> <name> §7- Start creating a new room");
+        player.sendMessage("§e/battlerooms create <1v1|2v2|3v3|4v4|ffa> <name> §7- Start creating a new room");
         player.sendMessage("§e/battlerooms setpos1 §7- Set first corner of room region");
         player.sendMessage("§e/battlerooms setpos2 §7- Set second corner of room region");
         player.sendMessage("§e/battlerooms setgate1 §7- Set first corner of gate area");
@@ -81,11 +154,18 @@ public class BattleRoomsCommand implements CommandExecutor, TabCompleter {
         player.sendMessage("§e/battlerooms delete <name> §7- Delete a room");
         player.sendMessage("§e/battlerooms list §7- List all configured rooms");
         player.sendMessage("§e/battlerooms reload §7- Reload configuration from file");
+        player.sendMessage("§e/battlerooms stats [dump|reset|verify] §7- Show plugin timing statistics");
+        player.sendMessage("§e/battlerooms queue <1v1|2v2|3v3|4v4|ffa|leave> §7- Join or leave the matchmaking queue");
+        player.sendMessage("§e/battlerooms store <migrate|export> §7- Switch room storage between binary and YAML");
+        player.sendMessage("§e/battlerooms history [player <name>|room <name>] §7- Show recent matches");
+        player.sendMessage("§e/battlerooms top <1v1|2v2|3v3|4v4|ffa> [page] §7- Show the best rated players");
+        player.sendMessage("§e/battlerooms rank [player] §7- Show ratings and ranks of a player");
+        player.sendMessage("§e/battlerooms network §7- Show the rooms of the other servers in the arena network");
     }
 
     private void handleCreate(Player player, String[] args) {
         if (args.length < 3) {
-            player.sendMessage("§cUsage: /battlerooms create <1v1|2v2> <name>");
+            player.sendMessage("§cUsage: /battlerooms create <1v1|2v2|3v3|4v4|ffa> <name>");
             return;
         }
 
@@ -94,7 +174,7 @@ public class BattleRoomsCommand implements CommandExecutor, TabCompleter {
 
         BattleRoom.RoomType type = BattleRoom.RoomType.fromString(typeStr);
         if (type == null) {
-            player.sendMessage("§cInvalid room type! Use 1v1 or 2v2.");
+            player.sendMessage("§cInvalid room type! Use 1v1, 2v2, 3v3, 4v4 or ffa.");
             return;
         }
 
@@ -231,12 +311,34 @@ public class BattleRoomsCommand implements CommandExecutor, TabCompleter {
         for (BattleRoom room : rooms.values()) {
             String stateColor = switch (room.getState()) {
                 case WAITING -> "§a";
+                case COUNTDOWN -> "§6";
                 case ACTIVE -> "§c";
                 case COOLDOWN -> "§e";
             };
             player.sendMessage("§f" + room.getName() + " §7(" + room.getType().getDisplayName() + ") - " 
-                    + stateColor + room.getState().name());
+                    + stateColor + room.getState().name() + describeTimers(room));
+        }
+    }
+
+    /**
+     * Describe the pending state timers of a room, e.g. " §7(reopens in 12s)"
+     */
+    private String describeTimers(BattleRoom room) {
+        RoomTimerWheel timers = roomManager.getTimers();
+        List<String> parts = new ArrayList<>();
+        for (RoomTimerWheel.TimerType type : RoomTimerWheel.TimerType.values()) {
+            long ticks = timers.getRemainingTicks(room, type);
+            if (ticks < 0) continue;
+
+            String seconds = ((ticks + 19) / 20) + "s";
+            parts.add(switch (type) {
+                case COUNTDOWN -> "fight in " + ((ticks + room.getCountdown() * 20L + 19) / 20) + "s";
+                case TIME_LIMIT -> "sudden death in " + seconds;
+                case SUDDEN_DEATH -> "draw in " + seconds;
+                case COOLDOWN -> "reopens in " + seconds;
+            });
         }
+        return parts.isEmpty() ? "" : " §7(" + String.join(", ", parts) + ")";
     }
 
     private void handleReload(Player player) {
@@ -244,10 +346,305 @@ public class BattleRoomsCommand implements CommandExecutor, TabCompleter {
         player.sendMessage("§aConfiguration reloaded!");
     }
 
+    private void handleQueue(Player player, String[] args) {
+        if (args.length < 2) {
+            player.sendMessage("§cUsage: /battlerooms queue <1v1|2v2|3v3|4v4|ffa|leave>");
+            return;
+        }
+
+        if (args[1].equalsIgnoreCase("leave")) {
+            if (queueManager.leaveQueue(player)) {
+                player.sendMessage("§eYou left the queue.");
+            } else {
+                player.sendMessage("§cYou are not in a queue!");
+            }
+            return;
+        }
+
+        BattleRoom.RoomType type = BattleRoom.RoomType.fromString(args[1]);
+        if (type == null) {
+            player.sendMessage("§cInvalid room type! Use 1v1, 2v2, 3v3, 4v4 or ffa.");
+            return;
+        }
+
+        queueManager.joinQueue(player, type);
+    }
+
+    private void handleHistory(Player player, String[] args) {
+        MatchHistory history = plugin.getMatchHistory();
+
+        if (args.length == 1) {
+            showPlayerHistory(player, player.getUniqueId(), player.getName(), history);
+            return;
+        }
+        if (args.length < 3) {
+            player.sendMessage("§cUsage: /battlerooms history [player <name>|room <name>]");
+            return;
+        }
+
+        if (args[1].equalsIgnoreCase("player")) {
+            Player online = Bukkit.getPlayerExact(args[2]);
+            UUID playerId = online != null ? online.getUniqueId() : history.findPlayerId(args[2]);
+            if (playerId == null) {
+                player.sendMessage("§cNo matches found for player " + args[2] + ".");
+                return;
+            }
+            showPlayerHistory(player, playerId, args[2], history);
+        } else if (args[1].equalsIgnoreCase("room")) {
+            List<MatchRecord> records = history.getRecentForRoom(args[2]);
+            if (records.isEmpty()) {
+                player.sendMessage("§cNo matches found for room " + args[2] + ".");
+                return;
+            }
+
+            player.sendMessage("§6§l=== Recent matches in " + args[2] + " ===");
+            long now = System.currentTimeMillis();
+            for (MatchRecord record : records.subList(0, Math.min(HISTORY_LINES, records.size()))) {
+                String result = switch (record.getCause()) {
+                    case WIN -> "§a" + String.join(", ", record.getWinnerNames()) + " won";
+                    case NO_WINNER -> "§eNo winner";
+                    case TIME_LIMIT -> "§eDraw, time ran out";
+                    case ROOM_REMOVED -> "§7Room removed";
+                };
+                player.sendMessage("§7" + formatDuration(now - record.getEndedAt()) + " ago §f"
+                        + record.getType().getDisplayName() + " §7- " + result
+                        + " §7in " + formatDuration(record.getDurationMillis()));
+            }
+        } else {
+            player.sendMessage("§cUsage: /battlerooms history [player <name>|room <name>]");
+        }
+    }
+
+    private void showPlayerHistory(Player player, UUID playerId, String name, MatchHistory history) {
+        List<MatchRecord> records = history.getRecentForPlayer(playerId);
+        if (records.isEmpty()) {
+            player.sendMessage("§cNo matches found for player " + name + ".");
+            return;
+        }
+
+        player.sendMessage("§6§l=== Recent matches of " + name + " ===");
+        long now = System.currentTimeMillis();
+        for (MatchRecord record : records.subList(0, Math.min(HISTORY_LINES, records.size()))) {
+            String result = "§eDraw";
+            for (int i = 0; i < record.getPlayerCount(); i++) {
+                if (record.getPlayer(i).equals(playerId) && record.getWinningTeam() >= 0) {
+                    result = record.isWinner(i) ? "§aWon" : "§cLost";
+                }
+            }
+            player.sendMessage("§7" + formatDuration(now - record.getEndedAt()) + " ago §f" + record.getRoomName()
+                    + " §7(" + record.getType().getDisplayName() + ") - " + result
+                    + " §7in " + formatDuration(record.getDurationMillis()));
+        }
+    }
+
+    /**
+     * Format a duration as its two largest units, e.g. "2m13s" or "3d4h"
+     */
+    private static String formatDuration(long millis) {
+        long seconds = Math.max(0, millis / 1000);
+        if (seconds < 60) return seconds + "s";
+        if (seconds < 3600) return seconds / 60 + "m" + seconds % 60 + "s";
+        if (seconds < 86400) return seconds / 3600 + "h" + seconds % 3600 / 60 + "m";
+        return seconds / 86400 + "d" + seconds % 86400 / 3600 + "h";
+    }
+
+    private void handleTop(Player player, String[] args) {
+        if (args.length < 2) {
+            player.sendMessage("§cUsage: /battlerooms top <1v1|2v2|3v3|4v4|ffa> [page]");
+            return;
+        }
+
+        BattleRoom.RoomType type = BattleRoom.RoomType.fromString(args[1]);
+        if (type == null) {
+            player.sendMessage("§cInvalid room type! Use 1v1, 2v2, 3v3, 4v4 or ffa.");
+            return;
+        }
+
+        int page = 1;
+        if (args.length >= 3) {
+            try {
+                page = Math.max(1, Integer.parseInt(args[2]));
+            } catch (NumberFormatException e) {
+                player.sendMessage("§cInvalid page number: " + args[2]);
+                return;
+            }
+        }
+
+        PlayerRatings ratings = plugin.getRatings();
+        int ranked = ratings.getRankedPlayers(type);
+        int pages = Math.max(1, (ranked + TOP_PAGE_SIZE - 1) / TOP_PAGE_SIZE);
+        if (ranked == 0) {
+            player.sendMessage("§cNobody has played " + type.getDisplayName() + " yet.");
+            return;
+        }
+        if (page > pages) {
+            player.sendMessage("§cThere are only " + pages + " pages.");
+            return;
+        }
+
+        int fromRank = (page - 1) * TOP_PAGE_SIZE + 1;
+        player.sendMessage("§6§l=== Top " + type.getDisplayName() + " Players §7(" + page + "/" + pages + ") §6§l===");
+        int rank = fromRank;
+        for (RatingEntry entry : ratings.getTop(type, fromRank, TOP_PAGE_SIZE)) {
+            player.sendMessage("§e#" + rank++ + " §f" + entry.getName() + " §7- §a" + entry.getDisplayRating()
+                    + " §7(" + entry.getWins() + "W/" + entry.getGames() + " games)");
+        }
+    }
+
+    private void handleRank(Player player, String[] args) {
+        PlayerRatings ratings = plugin.getRatings();
+        UUID playerId = player.getUniqueId();
+        String name = player.getName();
+
+        if (args.length >= 2) {
+            Player online = Bukkit.getPlayerExact(args[1]);
+            playerId = online != null ? online.getUniqueId() : ratings.findPlayerId(args[1]);
+            name = args[1];
+            if (playerId == null) {
+                player.sendMessage("§c" + name + " has no rating yet.");
+                return;
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (BattleRoom.RoomType type : BattleRoom.RoomType.values()) {
+            RatingEntry entry = ratings.getRating(playerId, type);
+            if (entry == null) continue;
+            lines.add("§f" + type.getDisplayName() + ": §a" + entry.getDisplayRating() + " §7(#"
+                    + ratings.getRank(playerId, type) + " of " + ratings.getRankedPlayers(type) + ", "
+                    + entry.getWins() + "W/" + entry.getGames() + " games)");
+        }
+
+        if (lines.isEmpty()) {
+            player.sendMessage("§c" + name + " has no rating yet.");
+            return;
+        }
+        player.sendMessage("§6§l=== Ratings of " + name + " ===");
+        for (String line : lines) {
+            player.sendMessage(line);
+        }
+    }
+
+    private void handleNetwork(Player player) {
+        ArenaNetwork network = plugin.getNetwork();
+        if (network == null) {
+            player.sendMessage("§cThe arena network is disabled. Enable it under network in config.yml.");
+            return;
+        }
+
+        player.sendMessage("§6§l=== Arena Network §7(" + network.getServerId() + ") §6§l===");
+        player.sendMessage("§7Transport: §f" + network.describeTransport());
+
+        Map<String, List<RemoteRoom>> byServer = new TreeMap<>();
+        for (RemoteRoom room : network.getRemoteRooms()) {
+            byServer.computeIfAbsent(room.getServer(), k -> new ArrayList<>()).add(room);
+        }
+        if (byServer.isEmpty()) {
+            player.sendMessage("§7No other servers have announced rooms yet.");
+            return;
+        }
+
+        for (Map.Entry<String, List<RemoteRoom>> entry : byServer.entrySet()) {
+            long open = entry.getValue().stream().filter(RemoteRoom::hasSpace).count();
+            player.sendMessage("§f" + entry.getKey() + " §7- " + entry.getValue().size() + " rooms, §a" + open + " open");
+            for (RemoteRoom room : entry.getValue()) {
+                player.sendMessage("  §7" + room.getName() + " (" + room.getType().getDisplayName() + ") "
+                        + room.getState().name() + " " + room.getPlayers() + "/" + room.getType().getRequiredPlayers());
+            }
+        }
+    }
+
+    private void handleStore(Player player, String[] args) {
+        if (args.length < 2) {
+            player.sendMessage("§cUsage: /battlerooms store <migrate|export>");
+            return;
+        }
+
+        if (args[1].equalsIgnoreCase("migrate")) {
+            // Arena instances are never saved, so leave them out of the binary store as well
+            List<BattleRoom> savedRooms = roomManager.getRooms().values().stream()
+                    .filter(room -> !plugin.getInstanceManager().isInstance(room))
+                    .collect(Collectors.toList());
+            plugin.getConfigManager().migrateToBinary(savedRooms);
+            player.sendMessage("§aWrote " + savedRooms.size() + " rooms to rooms.dat. Rooms now load from the binary store.");
+        } else if (args[1].equalsIgnoreCase("export")) {
+            try {
+                int count = plugin.getConfigManager().exportBinaryToYaml();
+                roomManager.reloadRooms();
+                player.sendMessage("§aExported " + count + " rooms from rooms.dat to config.yml. Rooms now load from YAML.");
+            } catch (IOException e) {
+                player.sendMessage("§cFailed to read rooms.dat: " + e.getMessage());
+            }
+        } else {
+            player.sendMessage("§cUsage: /battlerooms store <migrate|export>");
+        }
+    }
+
+    private void handleStats(Player player, String[] args) {
+        MetricsRegistry metrics = plugin.getMetrics();
+
+        if (args.length >= 2 && args[1].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            player.sendMessage("§aStatistics reset.");
+            return;
+        }
+
+        if (args.length >= 2 && args[1].equalsIgnoreCase("dump")) {
+            try {
+                File file = metrics.dump(new File(plugin.getDataFolder(), "metrics"));
+                player.sendMessage("§aStatistics written to §f" + file.getName());
+            } catch (IOException e) {
+                player.sendMessage("§cFailed to write statistics: " + e.getMessage());
+            }
+            return;
+        }
+
+        if (args.length >= 2 && args[1].equalsIgnoreCase("verify")) {
+            List<String> problems = roomManager.verifyPlayerIndex();
+            if (problems.isEmpty()) {
+                player.sendMessage("§aThe player index matches every room.");
+                return;
+            }
+            player.sendMessage("§cFound " + problems.size() + " player index problems:");
+            for (String problem : problems) {
+                player.sendMessage("§7- " + problem);
+            }
+            return;
+        }
+
+        List<String> lines = metrics.format();
+        player.sendMessage("§6§l=== BattleRooms Stats §7(" + metrics.getUptimeSeconds() + "s) §6§l===");
+        player.sendMessage("§7Pending room timers: §f" + roomManager.getTimers().getPendingTimers()
+                + "§7, block jobs: §f" + roomManager.getBlockUpdateScheduler().getPendingJobs());
+        player.sendMessage("§7Match history queued: §f" + plugin.getMatchHistory().getQueuedRecords()
+                + "§7, dropped: §f" + plugin.getMatchHistory().getDroppedRecords()
+                + "§7, unsaved ratings: §f" + plugin.getRatings().getPendingWrites());
+        ArenaSnapshot snapshot = roomManager.getSnapshot();
+        player.sendMessage("§7Room snapshot: §fv" + snapshot.getVersion() + "§7, " + snapshot.getRoomCount() + " rooms, "
+                + snapshot.getPlayerCount() + " players");
+        if (lines.isEmpty()) {
+            player.sendMessage("§7Nothing recorded yet.");
+            return;
+        }
+        for (String line : lines) {
+            player.sendMessage("§7" + line);
+        }
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (!sender.hasPermission("battlerooms.admin")) {
-            return new ArrayList<>();
+            if (args.length == 1) {
+                return PLAYER_SUBCOMMANDS.keySet().stream()
+                        .filter(s -> sender.hasPermission(PLAYER_SUBCOMMANDS.get(s)))
+                        .filter(s -> s.startsWith(args[0].toLowerCase()))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            String permission = PLAYER_SUBCOMMANDS.get(args[0].toLowerCase());
+            if (permission == null || !sender.hasPermission(permission)) {
+                return new ArrayList<>();
+            }
         }
 
         if (args.length == 1) {
@@ -262,6 +659,31 @@ public class BattleRoomsCommand implements CommandExecutor, TabCompleter {
                         .filter(s -> s.startsWith(args[1].toLowerCase()))
                         .collect(Collectors.toList());
             }
+            if (args[0].equalsIgnoreCase("queue")) {
+                return QUEUE_OPTIONS.stream()
+                        .filter(s -> s.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            }
+            if (args[0].equalsIgnoreCase("top")) {
+                return ROOM_TYPES.stream()
+                        .filter(s -> s.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            }
+            if (args[0].equalsIgnoreCase("history")) {
+                return HISTORY_TARGETS.stream()
+                        .filter(s -> s.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            }
+            if (args[0].equalsIgnoreCase("store")) {
+                return STORE_ACTIONS.stream()
+                        .filter(s -> s.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            }
+            if (args[0].equalsIgnoreCase("stats")) {
+                return STATS_ACTIONS.stream()
+                        .filter(s -> s.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            }
             if (args[0].equalsIgnoreCase("delete")) {
                 return roomManager.getRooms().keySet().stream()
                         .filter(s -> s.startsWith(args[1].toLowerCase()))
@@ -269,6 +691,12 @@ public class BattleRoomsCommand implements CommandExecutor, TabCompleter {
             }
         }
 
+        if (args.length == 3 && args[0].equalsIgnoreCase("history") && args[1].equalsIgnoreCase("room")) {
+            return roomManager.getRooms().keySet().stream()
+                    .filter(s -> s.startsWith(args[2].toLowerCase()))
+                    .collect(Collectors.toList());
+        }
+
         return new ArrayList<>();
     }
 }
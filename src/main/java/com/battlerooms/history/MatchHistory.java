@@ -0,0 +1,132 @@
+package com.battlerooms.history;
+
+import com.battlerooms.BattleRooms;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records finished matches and answers queries for the most recent ones.
+ * Records go to an append-only log on a background thread and into in-memory indexes
+ * of the latest matches per player and per room, which are only touched on the main thread.
+ */
+public class MatchHistory {
+
+    private final BattleRooms plugin;
+    private final MatchLog log;
+    private final int recentLimit;
+    private final Map<UUID, Deque<MatchRecord>> byPlayer;
+    private final Map<String, Deque<MatchRecord>> byRoom;
+    private final Map<String, UUID> playerIdsByName;
+
+    public MatchHistory(BattleRooms plugin) {
+        this.plugin = plugin;
+        this.log = new MatchLog(new File(plugin.getDataFolder(), "history").toPath(),
+                plugin.getConfigManager().getHistorySegmentSize() * 1024L,
+                plugin.getConfigManager().getHistoryMaxSegments(),
+                plugin.getConfigManager().getHistoryQueueCapacity(),
+                plugin.getLogger());
+        this.recentLimit = Math.max(1, plugin.getConfigManager().getHistoryRecentLimit());
+        this.byPlayer = new HashMap<>();
+        this.byRoom = new HashMap<>();
+        this.playerIdsByName = new HashMap<>();
+    }
+
+    /**
+     * Start the background writer, which loads the existing log into the indexes first
+     */
+    public void start() {
+        log.start(records -> new BukkitRunnable() {
+            @Override
+            public void run() {
+                merge(records);
+            }
+        }.runTask(plugin));
+    }
+
+    /**
+     * Write the remaining queued records and stop the background writer
+     */
+    public void shutdown() {
+        log.shutdown();
+    }
+
+    /**
+     * Record a finished match. Never blocks, must be called from the main thread.
+     */
+    public void record(MatchRecord record) {
+        log.append(record);
+        index(record, true);
+    }
+
+    /**
+     * Get the most recent matches of a player, newest first
+     */
+    public List<MatchRecord> getRecentForPlayer(UUID playerId) {
+        Deque<MatchRecord> records = byPlayer.get(playerId);
+        return records == null ? new ArrayList<>() : new ArrayList<>(records);
+    }
+
+    /**
+     * Get the most recent matches played in a room, newest first
+     */
+    public List<MatchRecord> getRecentForRoom(String roomName) {
+        Deque<MatchRecord> records = byRoom.get(roomName.toLowerCase());
+        return records == null ? new ArrayList<>() : new ArrayList<>(records);
+    }
+
+    /**
+     * Find a player who appears in the history by their last known name
+     */
+    public UUID findPlayerId(String name) {
+        return playerIdsByName.get(name.toLowerCase());
+    }
+
+    public long getDroppedRecords() {
+        return log.getDropped();
+    }
+
+    public int getQueuedRecords() {
+        return log.getQueued();
+    }
+
+    /**
+     * Add records loaded from disk behind the ones recorded since startup, oldest records last
+     */
+    private void merge(List<MatchRecord> loaded) {
+        for (int i = loaded.size() - 1; i >= 0; i--) {
+            index(loaded.get(i), false);
+        }
+        plugin.getLogger().info("Loaded " + loaded.size() + " matches from the match history.");
+    }
+
+    private void index(MatchRecord record, boolean newest) {
+        add(byRoom.computeIfAbsent(record.getRoomName().toLowerCase(), k -> new ArrayDeque<>()), record, newest);
+        for (int i = 0; i < record.getPlayerCount(); i++) {
+            add(byPlayer.computeIfAbsent(record.getPlayer(i), k -> new ArrayDeque<>()), record, newest);
+            if (newest) {
+                playerIdsByName.put(record.getPlayerName(i).toLowerCase(), record.getPlayer(i));
+            } else {
+                playerIdsByName.putIfAbsent(record.getPlayerName(i).toLowerCase(), record.getPlayer(i));
+            }
+        }
+    }
+
+    private void add(Deque<MatchRecord> records, MatchRecord record, boolean newest) {
+        if (newest) {
+            records.addFirst(record);
+            if (records.size() > recentLimit) {
+                records.removeLast();
+            }
+        } else if (records.size() < recentLimit) {
+            records.addLast(record);
+        }
+    }
+}
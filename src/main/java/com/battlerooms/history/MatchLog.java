@@ -0,0 +1,241 @@
+package com.battlerooms.history;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Append-only match log split into numbered segment files.
+ * Records are handed over through a bounded queue and written by a single background thread,
+ * which starts a new segment once the current one is full and deletes the oldest segments beyond the limit.
+ * The same thread reads the existing segments before it writes anything, so a load never sees its own appends.
+ */
+class MatchLog {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("matches-(\\d+)\\.log");
+    private static final int MAX_BATCH = 256;
+    private static final long POLL_MILLIS = 250L;
+
+    private final Path folder;
+    private final long segmentBytes;
+    private final int maxSegments;
+    private final Logger logger;
+    private final BlockingQueue<MatchRecord> queue;
+    private final AtomicLong dropped;
+    private Thread thread;
+    private volatile boolean running;
+
+    // Only touched by the writer thread
+    private OutputStream output;
+    private int segment;
+    private long segmentSize;
+
+    MatchLog(Path folder, long segmentBytes, int maxSegments, int queueCapacity, Logger logger) {
+        this.folder = folder;
+        this.segmentBytes = Math.max(1024, segmentBytes);
+        this.maxSegments = Math.max(1, maxSegments);
+        this.logger = logger;
+        this.queue = new ArrayBlockingQueue<>(Math.max(16, queueCapacity));
+        this.dropped = new AtomicLong();
+    }
+
+    /**
+     * Start the writer thread, which first hands the records already on disk to the callback
+     */
+    void start(Consumer<List<MatchRecord>> onLoaded) {
+        running = true;
+        thread = new Thread(() -> run(onLoaded), "BattleRooms-HistoryWriter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queue a record for writing without ever blocking; records are dropped while the queue is full
+     */
+    void append(MatchRecord record) {
+        if (!queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+
+    int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Stop the writer once everything queued so far has been written, waiting at most a few seconds
+     */
+    void shutdown() {
+        running = false;
+        if (thread == null) return;
+
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Read every record in the retained segments, oldest first. Damaged lines fail their checksum and are skipped.
+     */
+    private List<MatchRecord> readAll() throws IOException {
+        List<MatchRecord> records = new ArrayList<>();
+        for (int number : listSegments()) {
+            // Unlike Files.newBufferedReader, this replaces the malformed tail of a cut multi-byte character instead of failing
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Files.newInputStream(segmentPath(number)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    MatchRecord record = MatchRecord.decode(line);
+                    if (record != null) {
+                        records.add(record);
+                    }
+                }
+            }
+        }
+        return records;
+    }
+
+    private void run(Consumer<List<MatchRecord>> onLoaded) {
+        List<MatchRecord> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            List<MatchRecord> loaded = readAll();
+            try {
+                onLoaded.accept(loaded);
+            } catch (RuntimeException e) {
+                // E.g. the plugin was disabled while loading, keep writing what is queued
+                logger.log(Level.WARNING, "Could not index the loaded match history", e);
+            }
+            openLatestSegment();
+            // Keep going after shutdown was requested until the queue is empty
+            while (running || !queue.isEmpty()) {
+                MatchRecord first;
+                try {
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Match history writer stopped", e);
+        } finally {
+            closeWriter();
+        }
+    }
+
+    private void write(List<MatchRecord> batch) throws IOException {
+        for (MatchRecord record : batch) {
+            byte[] line = (record.encode() + '\n').getBytes(StandardCharsets.UTF_8);
+            if (segmentSize > 0 && segmentSize + line.length > segmentBytes) {
+                rotate();
+            }
+            output.write(line);
+            segmentSize += line.length;
+        }
+        output.flush();
+    }
+
+    private void openLatestSegment() throws IOException {
+        Files.createDirectories(folder);
+        List<Integer> segments = listSegments();
+        segment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        openSegment();
+    }
+
+    private void rotate() throws IOException {
+        closeWriter();
+        segment++;
+        openSegment();
+
+        List<Integer> segments = listSegments();
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segmentPath(segments.get(i)));
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path path = segmentPath(segment);
+        output = new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        segmentSize = Files.size(path);
+
+        if (segmentSize > 0 && !endsWithNewline(path)) {
+            // The last write was cut short, end the damaged line so the next record starts cleanly
+            output.write('\n');
+            segmentSize++;
+        }
+    }
+
+    private static boolean endsWithNewline(Path path) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1);
+            channel.read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    private void closeWriter() {
+        if (output == null) return;
+        try {
+            output.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not close match history segment", e);
+        }
+        output = null;
+    }
+
+    /**
+     * Get the numbers of the segment files on disk, in ascending order
+     */
+    private List<Integer> listSegments() throws IOException {
+        List<Integer> segments = new ArrayList<>();
+        if (!Files.isDirectory(folder)) return segments;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder, "matches-*.log")) {
+            for (Path path : stream) {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private Path segmentPath(int number) {
+        return folder.resolve(String.format("matches-%05d.log", number));
+    }
+}
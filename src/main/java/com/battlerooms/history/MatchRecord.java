@@ -0,0 +1,172 @@
+package com.battlerooms.history;
+
+import com.battlerooms.models.BattleRoom;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable result of one finished match
+ */
+public class MatchRecord {
+
+    /**
+     * Why a match ended
+     */
+    public enum EndCause {
+        WIN,          // One team or player was left standing
+        NO_WINNER,    // Everyone was eliminated
+        TIME_LIMIT,   // Sudden death ran out and the match was drawn
+        ROOM_REMOVED  // The room was deleted or reloaded mid-match
+    }
+
+    private final String roomName;
+    private final BattleRoom.RoomType type;
+    private final long startedAt;
+    private final long endedAt;
+    private final EndCause cause;
+    private final int winningTeam;
+    private final UUID[] players;
+    private final String[] playerNames;
+    private final int[] teams;
+
+    public MatchRecord(String roomName, BattleRoom.RoomType type, long startedAt, long endedAt,
+                       EndCause cause, int winningTeam, UUID[] players, String[] playerNames, int[] teams) {
+        this.roomName = roomName;
+        this.type = type;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.cause = cause;
+        this.winningTeam = winningTeam;
+        this.players = players;
+        this.playerNames = playerNames;
+        this.teams = teams;
+    }
+
+    public String getRoomName() {
+        return roomName;
+    }
+
+    public BattleRoom.RoomType getType() {
+        return type;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getEndedAt() {
+        return endedAt;
+    }
+
+    public long getDurationMillis() {
+        return endedAt - startedAt;
+    }
+
+    public EndCause getCause() {
+        return cause;
+    }
+
+    /**
+     * Get the winning team, or -1 if the match had no winner
+     */
+    public int getWinningTeam() {
+        return winningTeam;
+    }
+
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    public UUID getPlayer(int index) {
+        return players[index];
+    }
+
+    public String getPlayerName(int index) {
+        return playerNames[index];
+    }
+
+    public int getTeam(int index) {
+        return teams[index];
+    }
+
+    public boolean isWinner(int index) {
+        return winningTeam >= 0 && teams[index] == winningTeam;
+    }
+
+    /**
+     * Get the names of the players on the winning team
+     */
+    public List<String> getWinnerNames() {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < players.length; i++) {
+            if (isWinner(i)) {
+                names.add(playerNames[i]);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Encode the record as one tab-separated log line, without the line break.
+     * The last field is a CRC32 of the rest of the line, so a line cut short by a crash is recognized as damaged.
+     */
+    String encode() {
+        StringBuilder line = new StringBuilder(96 + players.length * 56);
+        line.append(startedAt).append('\t')
+                .append(endedAt).append('\t')
+                .append(roomName).append('\t')
+                .append(type.getDisplayName()).append('\t')
+                .append(cause.name()).append('\t')
+                .append(winningTeam).append('\t');
+        for (int i = 0; i < players.length; i++) {
+            if (i > 0) line.append(',');
+            line.append(players[i]).append(':').append(teams[i]).append(':').append(playerNames[i]);
+        }
+        String body = line.toString();
+        return body + '\t' + Long.toHexString(checksum(body));
+    }
+
+    /**
+     * Decode a log line, returning null for lines that are damaged or from an unknown room type
+     */
+    static MatchRecord decode(String line) {
+        int checksumStart = line.lastIndexOf('\t');
+        if (checksumStart < 0) return null;
+        String body = line.substring(0, checksumStart);
+        String[] fields = body.split("\t", -1);
+        if (fields.length != 7) return null;
+
+        try {
+            if (Long.parseLong(line.substring(checksumStart + 1), 16) != checksum(body)) return null;
+
+            BattleRoom.RoomType type = BattleRoom.RoomType.fromString(fields[3]);
+            if (type == null) return null;
+
+            String[] entries = fields[6].isEmpty() ? new String[0] : fields[6].split(",");
+            UUID[] players = new UUID[entries.length];
+            String[] names = new String[entries.length];
+            int[] teams = new int[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                String[] parts = entries[i].split(":", 3);
+                players[i] = UUID.fromString(parts[0]);
+                teams[i] = Integer.parseInt(parts[1]);
+                names[i] = parts[2];
+            }
+
+            return new MatchRecord(fields[2], type, Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                    EndCause.valueOf(fields[4]), Integer.parseInt(fields[5]), players, names, teams);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static long checksum(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
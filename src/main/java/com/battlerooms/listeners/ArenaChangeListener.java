@@ -0,0 +1,149 @@
+package com.battlerooms.listeners;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.managers.RoomManager;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+
+import java.util.List;
+
+/**
+ * Journals blocks changed inside active rooms so they can be reset after the match.
+ * Every handler runs before the change is applied and records the block as it still is; the journal keeps
+ * only the first state of each block, so recording a block that ends up unchanged is harmless.
+ */
+public class ArenaChangeListener implements Listener {
+
+    private final RoomManager roomManager;
+
+    public ArenaChangeListener(BattleRooms plugin) {
+        this.roomManager = plugin.getRoomManager();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        // The block has not been removed yet at this point
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        // The new block is already in the world, the replaced state holds what was there before
+        roomManager.recordBlockChange(event.getBlock().getLocation(), event.getBlockReplacedState().getBlockData());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        recordAll(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        recordAll(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        // Water can also be poured into a waterlogged block, so the clicked block may change as well
+        record(event.getBlock());
+        record(event.getBlockClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketFill(PlayerBucketFillEvent event) {
+        record(event.getBlock());
+        record(event.getBlockClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onLiquidFlow(BlockFromToEvent event) {
+        record(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockForm(BlockFormEvent event) {
+        record(event.getBlock());
+    }
+
+    /**
+     * Fire, grass and vines spreading, which has its own handler list apart from forming
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockSpread(BlockSpreadEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockIgnite(BlockIgniteEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        record(event.getBlock());
+    }
+
+    /**
+     * Falling sand landing or lifting off, endermen, withers and trampled farmland
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        recordPiston(event.getBlock(), event.getDirection(), event.getBlocks());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        recordPiston(event.getBlock(), event.getDirection(), event.getBlocks());
+    }
+
+    /**
+     * Record the piston head and every moved block together with both neighbours along the push,
+     * which covers where each block comes from and goes to whichever way the piston moves
+     */
+    private void recordPiston(Block piston, BlockFace direction, List<Block> moved) {
+        record(piston.getRelative(direction));
+        for (Block block : moved) {
+            record(block);
+            record(block.getRelative(direction));
+            record(block.getRelative(direction.getOppositeFace()));
+        }
+    }
+
+    private void recordAll(List<Block> blocks) {
+        for (Block block : blocks) {
+            record(block);
+        }
+    }
+
+    private void record(Block block) {
+        roomManager.recordBlockChange(block.getLocation(), block.getBlockData());
+    }
+}
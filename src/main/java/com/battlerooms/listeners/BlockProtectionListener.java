@@ -2,6 +2,8 @@ package com.battlerooms.listeners;
 
 import com.battlerooms.BattleRooms;
 import com.battlerooms.managers.RoomManager;
+import com.battlerooms.metrics.Metric;
+import com.battlerooms.metrics.MetricsRegistry;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -15,41 +17,53 @@ import org.bukkit.event.block.BlockPlaceEvent;
 public class BlockProtectionListener implements Listener {
 
     private final RoomManager roomManager;
+    private final MetricsRegistry metrics;
 
     public BlockProtectionListener(BattleRooms plugin) {
         this.roomManager = plugin.getRoomManager();
+        this.metrics = plugin.getMetrics();
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
+        long start = System.nanoTime();
+        try {
+            Player player = event.getPlayer();
 
-        // OPs can break any block
-        if (player.isOp()) {
-            return;
-        }
+            // OPs can break any block
+            if (player.isOp()) {
+                return;
+            }
 
-        // Check if the block is a protected boundary
-        if (roomManager.isProtectedBlock(event.getBlock().getLocation())) {
-            event.setCancelled(true);
-            player.sendMessage("§cYou cannot break the room structure!");
+            // Check if the block is a protected boundary
+            if (roomManager.isProtectedBlock(event.getBlock().getLocation())) {
+                event.setCancelled(true);
+                player.sendMessage("§cYou cannot break the room structure!");
+            }
+        } finally {
+            metrics.record(Metric.BLOCK_BREAK, System.nanoTime() - start);
         }
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onBlockPlace(BlockPlaceEvent event) {
-        Player player = event.getPlayer();
+        long start = System.nanoTime();
+        try {
+            Player player = event.getPlayer();
 
-        // OPs can place any block
-        if (player.isOp()) {
-            return;
-        }
+            // OPs can place any block
+            if (player.isOp()) {
+                return;
+            }
 
-        // Check if the block would be placed on a protected boundary
-        // This prevents players from modifying the room structure
-        if (roomManager.isProtectedBlock(event.getBlock().getLocation())) {
-            event.setCancelled(true);
-            player.sendMessage("§cYou cannot modify the room structure!");
+            // Check if the block would be placed on a protected boundary
+            // This prevents players from modifying the room structure
+            if (roomManager.isProtectedBlock(event.getBlock().getLocation())) {
+                event.setCancelled(true);
+                player.sendMessage("§cYou cannot modify the room structure!");
+            }
+        } finally {
+            metrics.record(Metric.BLOCK_PLACE, System.nanoTime() - start);
         }
     }
 }
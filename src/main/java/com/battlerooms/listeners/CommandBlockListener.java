@@ -3,6 +3,8 @@ package com.battlerooms.listeners;
 import com.battlerooms.BattleRooms;
 import com.battlerooms.managers.ConfigManager;
 import com.battlerooms.managers.RoomManager;
+import com.battlerooms.metrics.Metric;
+import com.battlerooms.metrics.MetricsRegistry;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -16,25 +18,32 @@ public class CommandBlockListener implements Listener {
 
     private final RoomManager roomManager;
     private final ConfigManager configManager;
+    private final MetricsRegistry metrics;
 
     public CommandBlockListener(BattleRooms plugin) {
         this.roomManager = plugin.getRoomManager();
         this.configManager = plugin.getConfigManager();
+        this.metrics = plugin.getMetrics();
     }
 
     @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
-        Player player = event.getPlayer();
+        long start = System.nanoTime();
+        try {
+            Player player = event.getPlayer();
 
-        // OPs can always use commands
-        if (player.isOp() || player.hasPermission("battlerooms.bypass")) {
-            return;
-        }
+            // OPs can always use commands
+            if (player.isOp() || player.hasPermission("battlerooms.bypass")) {
+                return;
+            }
 
-        // Check if player is in an active room
-        if (roomManager.isPlayerInActiveRoom(player)) {
-            event.setCancelled(true);
-            player.sendMessage(configManager.getMessage("commands-disabled"));
+            // Check if player is in an active room
+            if (roomManager.isPlayerInActiveRoom(player)) {
+                event.setCancelled(true);
+                player.sendMessage(configManager.getMessage("commands-disabled"));
+            }
+        } finally {
+            metrics.record(Metric.PLAYER_COMMAND, System.nanoTime() - start);
         }
     }
 }
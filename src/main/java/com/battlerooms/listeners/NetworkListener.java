@@ -0,0 +1,25 @@
+package com.battlerooms.listeners;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.network.ArenaNetwork;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+/**
+ * Queues players who were sent to this server by another server of the arena network
+ */
+public class NetworkListener implements Listener {
+
+    private final ArenaNetwork network;
+
+    public NetworkListener(BattleRooms plugin) {
+        this.network = plugin.getNetwork();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        network.handleJoin(event.getPlayer());
+    }
+}
@@ -2,6 +2,8 @@ package com.battlerooms.listeners;
 
 import com.battlerooms.BattleRooms;
 import com.battlerooms.managers.RoomManager;
+import com.battlerooms.metrics.Metric;
+import com.battlerooms.metrics.MetricsRegistry;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -14,14 +16,21 @@ import org.bukkit.event.entity.PlayerDeathEvent;
 public class PlayerDeathListener implements Listener {
 
     private final RoomManager roomManager;
+    private final MetricsRegistry metrics;
 
     public PlayerDeathListener(BattleRooms plugin) {
         this.roomManager = plugin.getRoomManager();
+        this.metrics = plugin.getMetrics();
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerDeath(PlayerDeathEvent event) {
-        Player player = event.getEntity();
-        roomManager.handlePlayerDeath(player);
+        long start = System.nanoTime();
+        try {
+            Player player = event.getEntity();
+            roomManager.handlePlayerDeath(player);
+        } finally {
+            metrics.record(Metric.PLAYER_DEATH, System.nanoTime() - start);
+        }
     }
 }
@@ -2,47 +2,75 @@ package com.battlerooms.listeners;
 
 import com.battlerooms.BattleRooms;
 import com.battlerooms.managers.RoomManager;
-import com.battlerooms.models.BattleRoom;
+import com.battlerooms.metrics.Metric;
+import com.battlerooms.metrics.MetricsRegistry;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 
 /**
- * Listens for player movement to detect room entry/exit
+ * Listens for player movement to detect room entry/exit and to freeze players before a fight
  */
 public class PlayerMoveListener implements Listener {
 
     private final RoomManager roomManager;
+    private final MetricsRegistry metrics;
 
     public PlayerMoveListener(BattleRooms plugin) {
         this.roomManager = plugin.getRoomManager();
+        this.metrics = plugin.getMetrics();
     }
 
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onPlayerMove(PlayerMoveEvent event) {
-        // Only check if player actually moved to a new block
-        if (event.getFrom().getBlockX() == event.getTo().getBlockX() &&
-            event.getFrom().getBlockY() == event.getTo().getBlockY() &&
-            event.getFrom().getBlockZ() == event.getTo().getBlockZ()) {
+    /**
+     * Hold players in place during the pre-fight countdown; they can still look around and fall
+     */
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onFrozenPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+        if (to == null || (from.getX() == to.getX() && from.getZ() == to.getZ())) {
             return;
         }
 
-        Player player = event.getPlayer();
+        if (roomManager.isFrozen(event.getPlayer())) {
+            Location held = from.clone();
+            held.setY(to.getY());
+            held.setYaw(to.getYaw());
+            held.setPitch(to.getPitch());
+            event.setTo(held);
+        }
+    }
 
-        // Check if player entered or left any room
-        BattleRoom fromRoom = roomManager.getRoomAtLocation(event.getFrom());
-        BattleRoom toRoom = roomManager.getRoomAtLocation(event.getTo());
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        long start = System.nanoTime();
+        try {
+            // Only check if player actually moved to a new block
+            if (event.getFrom().getBlockX() == event.getTo().getBlockX() &&
+                event.getFrom().getBlockY() == event.getTo().getBlockY() &&
+                event.getFrom().getBlockZ() == event.getTo().getBlockZ()) {
+                return;
+            }
 
-        // Player leaving a room
-        if (fromRoom != null && toRoom == null) {
-            roomManager.handlePlayerLeaveRoom(player, fromRoom);
+            Player player = event.getPlayer();
+            roomManager.handlePlayerMove(player, event.getFrom(), event.getTo());
+        } finally {
+            metrics.record(Metric.PLAYER_MOVE, System.nanoTime() - start);
         }
+    }
 
-        // Player entering a room
-        if (toRoom != null && (fromRoom == null || !fromRoom.getName().equals(toRoom.getName()))) {
-            roomManager.handlePlayerEnterRoom(player, toRoom);
-        }
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        roomManager.invalidateMoveCache(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        roomManager.invalidateMoveCache(event.getPlayer());
     }
 }
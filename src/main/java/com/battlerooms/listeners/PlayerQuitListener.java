@@ -1,7 +1,10 @@
 package com.battlerooms.listeners;
 
 import com.battlerooms.BattleRooms;
+import com.battlerooms.managers.QueueManager;
 import com.battlerooms.managers.RoomManager;
+import com.battlerooms.metrics.Metric;
+import com.battlerooms.metrics.MetricsRegistry;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -14,21 +17,33 @@ import org.bukkit.event.player.PlayerQuitEvent;
 public class PlayerQuitListener implements Listener {
 
     private final RoomManager roomManager;
+    private final QueueManager queueManager;
+    private final MetricsRegistry metrics;
 
     public PlayerQuitListener(BattleRooms plugin) {
         this.roomManager = plugin.getRoomManager();
+        this.queueManager = plugin.getQueueManager();
+        this.metrics = plugin.getMetrics();
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
-        Player player = event.getPlayer();
-        
-        // Cancel any room creation in progress
-        if (roomManager.isCreating(player)) {
-            roomManager.cancelCreating(player);
+        long start = System.nanoTime();
+        try {
+            Player player = event.getPlayer();
+
+            // Cancel any room creation in progress
+            if (roomManager.isCreating(player)) {
+                roomManager.cancelCreating(player);
+            }
+
+            // A player the queue teleported in keeps their return location and is sent back when they join again
+            queueManager.leaveQueue(player);
+
+            // Handle quit as death if in active room
+            roomManager.handlePlayerQuit(player);
+        } finally {
+            metrics.record(Metric.PLAYER_QUIT, System.nanoTime() - start);
         }
-        
-        // Handle quit as death if in active room
-        roomManager.handlePlayerQuit(player);
     }
 }
@@ -0,0 +1,44 @@
+package com.battlerooms.listeners;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.managers.QueueManager;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+
+/**
+ * Sends players the queue teleported into a match back to where they queued from
+ * when they join again after quitting or respawn after dying
+ */
+public class PlayerReturnListener implements Listener {
+
+    private final QueueManager queueManager;
+
+    public PlayerReturnListener(BattleRooms plugin) {
+        this.queueManager = plugin.getQueueManager();
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        // A player who quit while dead is returned once they respawn
+        if (player.isDead()) return;
+
+        Location location = queueManager.takeReturnLocation(player);
+        if (location != null) {
+            player.teleport(location);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        Location location = queueManager.takeReturnLocation(event.getPlayer());
+        if (location != null) {
+            event.setRespawnLocation(location);
+        }
+    }
+}
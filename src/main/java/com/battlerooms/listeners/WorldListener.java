@@ -0,0 +1,43 @@
+package com.battlerooms.listeners;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.managers.RoomManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Attaches rooms to their world when it loads and detaches them when it unloads
+ */
+public class WorldListener implements Listener {
+
+    private final BattleRooms plugin;
+    private final RoomManager roomManager;
+
+    public WorldListener(BattleRooms plugin) {
+        this.plugin = plugin;
+        this.roomManager = plugin.getRoomManager();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        roomManager.bindWorld(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onWorldUnloadCheck(WorldUnloadEvent event) {
+        // A sealed gate or a dirty arena would be saved to disk, so wait until the room has reset
+        if (roomManager.isWorldInUse(event.getWorld())) {
+            event.setCancelled(true);
+            plugin.getLogger().warning("Kept world " + event.getWorld().getName()
+                    + " loaded because a battle room in it is still in use.");
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        roomManager.unbindWorld(event.getWorld());
+    }
+}
@@ -0,0 +1,175 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.models.BattleRoom;
+import org.bukkit.Location;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Compact, versioned binary copy of the room definitions for fast startup.
+ * <p>
+ * Layout (big endian): magic "BRRM", version (short), fingerprint of the config.yml it was copied from (long),
+ * room count (int), then per room:
+ * name, type and world as length-prefixed UTF-8, a bit mask of which corners are set
+ * (pos1, pos2, gate1, gate2) and three ints per set corner.
+ */
+public class BinaryRoomStore {
+
+    private static final int MAGIC = 0x4252524D; // "BRRM"
+    private static final short VERSION = 2;
+    private static final int HEADER_SIZE = 18;
+    private static final int MIN_ROOM_SIZE = 7; // Three empty strings and the corner mask
+
+    private final Path file;
+
+    public BinaryRoomStore(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Fingerprint a source file by its length and CRC32, which unlike its modification time
+     * changes with every edit even on filesystems with coarse timestamps
+     */
+    public static long fingerprint(Path source) throws IOException {
+        byte[] contents = Files.readAllBytes(source);
+        CRC32 crc = new CRC32();
+        crc.update(contents);
+        return ((long) contents.length << 32) | crc.getValue();
+    }
+
+    /**
+     * Check if the store exists and was written from a source with the given fingerprint
+     */
+    public boolean isCopyOf(long sourceFingerprint) {
+        if (!Files.isRegularFile(file)) return false;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readInt() == MAGIC && in.readShort() == VERSION && in.readLong() == sourceFingerprint;
+        } catch (IOException e) {
+            // Also reached for files shorter than the header
+            return false;
+        }
+    }
+
+    /**
+     * Serialize rooms into the binary format, stamped with the fingerprint of the config.yml they were read from
+     */
+    public byte[] encode(Collection<BattleRoom> rooms, long sourceFingerprint) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + rooms.size() * 96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(sourceFingerprint);
+            out.writeInt(rooms.size());
+
+            for (BattleRoom room : rooms) {
+                writeString(out, room.getName());
+                writeString(out, room.getType().getDisplayName());
+                writeString(out, room.getWorldName());
+
+                Location[] corners = {room.getPos1(), room.getPos2(), room.getGate1(), room.getGate2()};
+                int mask = 0;
+                for (int i = 0; i < corners.length; i++) {
+                    if (corners[i] != null) mask |= 1 << i;
+                }
+                out.writeByte(mask);
+
+                for (Location corner : corners) {
+                    if (corner == null) continue;
+                    out.writeInt(corner.getBlockX());
+                    out.writeInt(corner.getBlockY());
+                    out.writeInt(corner.getBlockZ());
+                }
+            }
+        } catch (IOException e) {
+            // Writing to a byte array cannot fail
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Load all rooms through a memory-mapped read of the store file
+     */
+    public Map<String, BattleRoom> load() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        } catch (RuntimeException e) {
+            // A damaged file can still carry a valid header, report it like any other unreadable store
+            throw new IOException("Corrupt room store", e);
+        }
+    }
+
+    private Map<String, BattleRoom> decode(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE + 4 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a BattleRooms room store");
+        }
+
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported room store version " + version);
+        }
+        buffer.getLong(); // Source fingerprint, checked by isCopyOf
+
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / MIN_ROOM_SIZE) {
+            throw new IOException("Corrupt room store, bad room count " + count);
+        }
+        Map<String, BattleRoom> rooms = new HashMap<>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+            String name = readString(buffer);
+            BattleRoom.RoomType type = BattleRoom.RoomType.fromString(readString(buffer));
+            String worldName = readString(buffer);
+
+            int mask = buffer.get();
+            Location[] corners = new Location[4];
+            for (int corner = 0; corner < corners.length; corner++) {
+                if ((mask & (1 << corner)) == 0) continue;
+                int x = buffer.getInt();
+                int y = buffer.getInt();
+                int z = buffer.getInt();
+                corners[corner] = new Location(null, x, y, z);
+            }
+
+            if (type == null) continue;
+            rooms.put(name.toLowerCase(), new BattleRoom(name, type, worldName,
+                    corners[0], corners[1], corners[2], corners[3]));
+        }
+        return rooms;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getShort() & 0xFFFF;
+        if (length > buffer.remaining()) {
+            throw new IOException("Corrupt room store, string runs past the end of the file");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,209 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.models.BattleRoom;
+import com.battlerooms.models.ChangeJournal;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Queues block changes and applies them within a per-tick block budget.
+ * Room jobs (gates and arena resets) run in submission order, so a gate restore always follows the seal of the same room.
+ * Background jobs such as instance stamping have their own queue and budget and only run in ticks that finish
+ * every room job, so a match never waits for them and they never interleave with a room's reset.
+ */
+public class BlockUpdateScheduler {
+
+    /**
+     * A batch of block changes addressed by index
+     */
+    public interface BlockJob {
+        int size();
+
+        void apply(int index);
+    }
+
+    private static class PendingJob {
+        private final BlockJob job;
+        private final Runnable onComplete;
+        private int next;
+
+        private PendingJob(BlockJob job, Runnable onComplete) {
+            this.job = job;
+            this.onComplete = onComplete;
+        }
+    }
+
+    private final BattleRooms plugin;
+    private final ConfigManager configManager;
+    private final Deque<PendingJob> jobs;
+    private final Deque<PendingJob> backgroundJobs;
+    private BukkitTask task;
+
+    public BlockUpdateScheduler(BattleRooms plugin, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.jobs = new ArrayDeque<>();
+        this.backgroundJobs = new ArrayDeque<>();
+    }
+
+    /**
+     * Queue a job, running the callback on the main thread once every block has been applied
+     */
+    public void submit(BlockJob job, Runnable onComplete) {
+        jobs.add(new PendingJob(job, onComplete));
+        startTask();
+    }
+
+    /**
+     * Queue a low-priority job that waits for room jobs and is applied within the background budget
+     */
+    public void submitBackground(BlockJob job, Runnable onComplete) {
+        backgroundJobs.add(new PendingJob(job, onComplete));
+        startTask();
+    }
+
+    /**
+     * Seal a room's gate with blue glass over the next ticks
+     */
+    public void sealGate(BattleRoom room, Runnable onSealed) {
+        World world = room.getWorld();
+        if (world == null) {
+            onSealed.run();
+            return;
+        }
+
+        submit(new BlockJob() {
+            @Override
+            public int size() {
+                return room.getGateBlockCount();
+            }
+
+            @Override
+            public void apply(int index) {
+                room.sealGateBlock(world, index);
+            }
+        }, onSealed);
+    }
+
+    /**
+     * Restore a room's original gate blocks over the next ticks
+     */
+    public void restoreGate(BattleRoom room, Runnable onRestored) {
+        World world = room.getWorld();
+        if (world == null) {
+            onRestored.run();
+            return;
+        }
+
+        submit(new BlockJob() {
+            @Override
+            public int size() {
+                return room.getGateBlockCount();
+            }
+
+            @Override
+            public void apply(int index) {
+                room.restoreGateBlock(world, index);
+            }
+        }, () -> {
+            room.clearGateSnapshot();
+            onRestored.run();
+        });
+    }
+
+    /**
+     * Put back every block changed inside a room during its last match over the next ticks
+     */
+    public void resetArena(BattleRoom room, Runnable onReset) {
+        World world = room.getWorld();
+        ChangeJournal journal = room.getChangeJournal();
+        if (world == null) {
+            journal.clear();
+            onReset.run();
+            return;
+        }
+
+        submit(new BlockJob() {
+            @Override
+            public int size() {
+                return journal.size();
+            }
+
+            @Override
+            public void apply(int index) {
+                journal.restore(world, index);
+            }
+        }, () -> {
+            journal.clear();
+            onReset.run();
+        });
+    }
+
+    /**
+     * Get the number of jobs that have not finished yet, background jobs included
+     */
+    public int getPendingJobs() {
+        return jobs.size() + backgroundJobs.size();
+    }
+
+    /**
+     * Apply every queued block change immediately, e.g. when the plugin is disabled
+     */
+    public void flush() {
+        do {
+            process(jobs, Integer.MAX_VALUE);
+            process(backgroundJobs, Integer.MAX_VALUE);
+        } while (!jobs.isEmpty() || !backgroundJobs.isEmpty()); // Callbacks may queue further jobs
+        stopTask();
+    }
+
+    private void tick() {
+        process(jobs, Math.max(1, configManager.getGateBlocksPerTick()));
+        if (jobs.isEmpty()) {
+            process(backgroundJobs, Math.max(1, configManager.getInstanceBlocksPerTick()));
+        }
+        if (jobs.isEmpty() && backgroundJobs.isEmpty()) {
+            stopTask();
+        }
+    }
+
+    private void process(Deque<PendingJob> queue, int budget) {
+        while (budget > 0 && !queue.isEmpty()) {
+            PendingJob pending = queue.peek();
+            int end = (int) Math.min(pending.job.size(), (long) pending.next + budget);
+            budget -= end - pending.next;
+
+            while (pending.next < end) {
+                pending.job.apply(pending.next++);
+            }
+
+            if (pending.next >= pending.job.size()) {
+                queue.poll();
+                pending.onComplete.run();
+            }
+        }
+    }
+
+    private void startTask() {
+        if (task == null) {
+            task = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    tick();
+                }
+            }.runTaskTimer(plugin, 1L, 1L);
+        }
+    }
+
+    private void stopTask() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
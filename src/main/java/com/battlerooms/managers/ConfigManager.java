@@ -2,14 +2,16 @@ package com.battlerooms.managers;
 
 import com.battlerooms.BattleRooms;
 import com.battlerooms.models.BattleRoom;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.World;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.logging.Level;
 
 /**
  * Manages loading and saving room configurations
@@ -17,10 +19,14 @@ import java.util.Map;
 public class ConfigManager {
 
     private final BattleRooms plugin;
+    private final ConfigWriter configWriter;
+    private final BinaryRoomStore binaryRoomStore;
     private FileConfiguration config;
 
     public ConfigManager(BattleRooms plugin) {
         this.plugin = plugin;
+        this.configWriter = new ConfigWriter(plugin);
+        this.binaryRoomStore = new BinaryRoomStore(new File(plugin.getDataFolder(), "rooms.dat").toPath());
     }
 
     public void loadConfig() {
@@ -29,27 +35,223 @@ public class ConfigManager {
     }
 
     public void reloadConfig() {
+        // Make sure edits still waiting to be written are not lost by re-reading the file
+        configWriter.flush();
         plugin.reloadConfig();
         config = plugin.getConfig();
     }
 
+    /**
+     * Schedule the configuration to be written to disk in the background
+     */
     public void saveConfig() {
-        plugin.saveConfig();
+        configWriter.requestSave();
+    }
+
+    /**
+     * Write pending changes and stop the background writer
+     */
+    public void shutdown() {
+        configWriter.shutdown();
     }
 
     public int getCooldownTime() {
         return config.getInt("cooldown-time", 30);
     }
 
+    public int getCountdownTime() {
+        return config.getInt("match.countdown", 5);
+    }
+
+    public int getMatchTimeLimit() {
+        return config.getInt("match.time-limit", 300);
+    }
+
+    public int getSuddenDeathTime() {
+        return config.getInt("match.sudden-death", 60);
+    }
+
+    public int getHistorySegmentSize() {
+        return config.getInt("history.segment-size-kb", 4096);
+    }
+
+    public int getHistoryMaxSegments() {
+        return config.getInt("history.max-segments", 10);
+    }
+
+    public int getHistoryQueueCapacity() {
+        return config.getInt("history.queue-capacity", 1024);
+    }
+
+    public int getHistoryRecentLimit() {
+        return config.getInt("history.recent-limit", 20);
+    }
+
+    public double getInitialRating() {
+        return config.getDouble("ratings.initial-rating", 1000.0);
+    }
+
+    public double getRatingKFactor() {
+        return config.getDouble("ratings.k-factor", 32.0);
+    }
+
+    public int getRatingFlushInterval() {
+        return config.getInt("ratings.flush-interval", 30);
+    }
+
+    public boolean isNetworkEnabled() {
+        return config.getBoolean("network.enabled", false);
+    }
+
+    public String getNetworkServerId() {
+        return config.getString("network.server-id", "server-1");
+    }
+
+    public String getNetworkTransport() {
+        return config.getString("network.transport", "socket");
+    }
+
+    public String getNetworkSocketPath() {
+        return config.getString("network.socket-path", "/tmp/battlerooms-network.sock");
+    }
+
+    public String getNetworkChannel() {
+        return config.getString("network.channel", "battlerooms");
+    }
+
+    public int getNetworkHeartbeatInterval() {
+        return config.getInt("network.heartbeat-interval", 10);
+    }
+
+    public double getMatchmakingInitialGap() {
+        return config.getDouble("matchmaking.initial-gap", 100.0);
+    }
+
+    public double getMatchmakingWidenPerSecond() {
+        return config.getDouble("matchmaking.widen-per-second", 10.0);
+    }
+
+    public double getMatchmakingMaxGap() {
+        return config.getDouble("matchmaking.max-gap", 800.0);
+    }
+
+    public double getMatchmakingBucketWidth() {
+        return config.getDouble("matchmaking.bucket-width", 25.0);
+    }
+
+    /**
+     * Check if rooms are loaded from the binary room store at startup
+     */
+    public boolean isBinaryStorage() {
+        return config.getString("storage", "yaml").equalsIgnoreCase("binary");
+    }
+
+    public int getGateBlocksPerTick() {
+        return config.getInt("gate-blocks-per-tick", 256);
+    }
+
+    public boolean isInstancingEnabled() {
+        return config.getBoolean("instancing.enabled", false);
+    }
+
+    public String getInstanceWorldName() {
+        return config.getString("instancing.world", "battlerooms_arenas");
+    }
+
+    public int getMaxInstances() {
+        return config.getInt("instancing.max-instances", 64);
+    }
+
+    public int getMinIdleInstances() {
+        return config.getInt("instancing.min-idle", 2);
+    }
+
+    public int getInstanceIdleTimeout() {
+        return config.getInt("instancing.idle-timeout", 300);
+    }
+
+    public int getInstanceSlotSpacing() {
+        return config.getInt("instancing.slot-spacing", 256);
+    }
+
+    public int getInstanceBaseY() {
+        return config.getInt("instancing.base-y", 64);
+    }
+
+    /**
+     * Get the number of blocks instance jobs may change per tick, on top of the gate budget
+     */
+    public int getInstanceBlocksPerTick() {
+        return config.getInt("instancing.blocks-per-tick", 128);
+    }
+
     public String getMessage(String key) {
         return config.getString("messages." + key, "Message not found: " + key)
                 .replace("&", "§");
     }
 
     /**
-     * Load all rooms from configuration
+     * Load all rooms, from the binary store when it is enabled and was copied from the current config.yml
      */
     public Map<String, BattleRoom> loadRooms() {
+        long fingerprint = isBinaryStorage() ? fingerprintConfig() : 0L;
+        if (isBinaryStorage() && fingerprint != 0L && binaryRoomStore.isCopyOf(fingerprint)) {
+            try {
+                return binaryRoomStore.load();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not read rooms.dat, loading rooms from config.yml", e);
+            }
+        }
+
+        Map<String, BattleRoom> rooms = loadRoomsFromYaml();
+        if (isBinaryStorage() && fingerprint != 0L) {
+            // config.yml was edited since the last binary copy was written, refresh it
+            configWriter.writeFile(binaryRoomStore.getFile(), binaryRoomStore.encode(rooms.values(), fingerprint));
+        }
+        return rooms;
+    }
+
+    /**
+     * Fingerprint config.yml as it is on disk, or return 0 if it cannot be read
+     */
+    private long fingerprintConfig() {
+        try {
+            return BinaryRoomStore.fingerprint(new File(plugin.getDataFolder(), "config.yml").toPath());
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not read config.yml to check rooms.dat", e);
+            return 0L;
+        }
+    }
+
+    /**
+     * Write the given rooms to the binary store and switch startup loading to it
+     */
+    public void migrateToBinary(Collection<BattleRoom> rooms) {
+        config.set("storage", "binary");
+        saveConfig();
+        // The binary copy is stamped with the fingerprint of config.yml, so write it once the YAML is on disk
+        configWriter.flush();
+        configWriter.writeFile(binaryRoomStore.getFile(), binaryRoomStore.encode(rooms, fingerprintConfig()));
+        configWriter.flush();
+    }
+
+    /**
+     * Replace the rooms in config.yml with the contents of the binary store and switch back to YAML.
+     * Returns the number of exported rooms.
+     */
+    public int exportBinaryToYaml() throws IOException {
+        Map<String, BattleRoom> rooms = binaryRoomStore.load();
+
+        config.set("rooms", null);
+        for (BattleRoom room : rooms.values()) {
+            writeRoom(room);
+        }
+        config.set("storage", "yaml");
+        saveConfig();
+        return rooms.size();
+    }
+
+    private Map<String, BattleRoom> loadRoomsFromYaml() {
         Map<String, BattleRoom> rooms = new HashMap<>();
         ConfigurationSection roomsSection = config.getConfigurationSection("rooms");
 
@@ -67,17 +269,14 @@ public class ConfigManager {
             BattleRoom.RoomType type = BattleRoom.RoomType.fromString(typeStr);
             if (type == null || worldName == null) continue;
 
-            World world = Bukkit.getWorld(worldName);
-
-            Location pos1 = loadLocation(roomSection.getConfigurationSection("pos1"), world);
-            Location pos2 = loadLocation(roomSection.getConfigurationSection("pos2"), world);
-            Location gate1 = loadLocation(roomSection.getConfigurationSection("gate1"), world);
-            Location gate2 = loadLocation(roomSection.getConfigurationSection("gate2"), world);
+            // Only coordinates are read here, the room is bound to its world once that world is loaded
+            Location pos1 = loadLocation(roomSection.getConfigurationSection("pos1"));
+            Location pos2 = loadLocation(roomSection.getConfigurationSection("pos2"));
+            Location gate1 = loadLocation(roomSection.getConfigurationSection("gate1"));
+            Location gate2 = loadLocation(roomSection.getConfigurationSection("gate2"));
 
             BattleRoom room = new BattleRoom(roomName, type, worldName, pos1, pos2, gate1, gate2);
             rooms.put(roomName.toLowerCase(), room);
-
-            plugin.getLogger().info("Loaded room: " + roomName + " (" + type.getDisplayName() + ")");
         }
 
         return rooms;
@@ -87,6 +286,11 @@ public class ConfigManager {
      * Save a room to configuration
      */
     public void saveRoom(BattleRoom room) {
+        writeRoom(room);
+        saveConfig();
+    }
+
+    private void writeRoom(BattleRoom room) {
         String path = "rooms." + room.getName();
 
         config.set(path + ".type", room.getType().getDisplayName());
@@ -96,8 +300,6 @@ public class ConfigManager {
         saveLocation(path + ".pos2", room.getPos2());
         saveLocation(path + ".gate1", room.getGate1());
         saveLocation(path + ".gate2", room.getGate2());
-
-        saveConfig();
     }
 
     /**
@@ -108,14 +310,14 @@ public class ConfigManager {
         saveConfig();
     }
 
-    private Location loadLocation(ConfigurationSection section, World world) {
-        if (section == null || world == null) return null;
+    private Location loadLocation(ConfigurationSection section) {
+        if (section == null) return null;
 
         int x = section.getInt("x");
         int y = section.getInt("y");
         int z = section.getInt("z");
 
-        return new Location(world, x, y, z);
+        return new Location(null, x, y, z);
     }
 
     private void saveLocation(String path, Location location) {
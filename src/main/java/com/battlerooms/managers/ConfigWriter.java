@@ -0,0 +1,142 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.metrics.Metric;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+/**
+ * Write-behind persistence for config.yml.
+ * Save requests made within the same coalescing window are merged into one write.
+ * The YAML is serialized on the main thread and written to disk on a background thread
+ * through a temporary file that atomically replaces the real one.
+ */
+public class ConfigWriter {
+
+    private static final long COALESCE_TICKS = 20L;
+
+    private final BattleRooms plugin;
+    private final Path target;
+    private final ExecutorService executor;
+    private BukkitTask pendingSave;
+    private Future<?> lastWrite;
+
+    public ConfigWriter(BattleRooms plugin) {
+        this.plugin = plugin;
+        this.target = new File(plugin.getDataFolder(), "config.yml").toPath();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BattleRooms-ConfigWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Request that the configuration is written to disk soon.
+     * Must be called from the main thread.
+     */
+    public void requestSave() {
+        if (pendingSave != null) {
+            return;
+        }
+
+        pendingSave = new BukkitRunnable() {
+            @Override
+            public void run() {
+                pendingSave = null;
+                writeSnapshot();
+            }
+        }.runTaskLater(plugin, COALESCE_TICKS);
+    }
+
+    /**
+     * Write a file in the background through the same atomic temp-file-then-rename path
+     */
+    public void writeFile(Path file, byte[] contents) {
+        lastWrite = executor.submit(() -> {
+            try {
+                writeAtomically(file, contents);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not save " + file.getFileName(), e);
+            }
+        });
+    }
+
+    /**
+     * Write any pending changes and wait until everything queued so far is on disk
+     */
+    public void flush() {
+        if (pendingSave != null) {
+            pendingSave.cancel();
+            pendingSave = null;
+            writeSnapshot();
+        }
+
+        if (lastWrite != null) {
+            try {
+                lastWrite.get(10, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                plugin.getLogger().warning("Timed out waiting for queued config writes to finish");
+            } catch (ExecutionException e) {
+                plugin.getLogger().log(Level.SEVERE, "A queued config write failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                plugin.getLogger().warning("Interrupted while waiting for queued config writes to finish");
+            }
+        }
+    }
+
+    /**
+     * Flush pending changes and stop the writer thread
+     */
+    public void shutdown() {
+        flush();
+        executor.shutdown();
+    }
+
+    private void writeSnapshot() {
+        long start = System.nanoTime();
+        FileConfiguration config = plugin.getConfig();
+        String contents = config.saveToString();
+        plugin.getMetrics().record(Metric.CONFIG_SERIALIZE, System.nanoTime() - start);
+
+        lastWrite = executor.submit(() -> write(contents));
+    }
+
+    private void write(String contents) {
+        long start = System.nanoTime();
+        try {
+            writeAtomically(target, contents.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not save config.yml", e);
+        }
+        plugin.getMetrics().record(Metric.CONFIG_WRITE, System.nanoTime() - start);
+    }
+
+    private static void writeAtomically(Path file, byte[] contents) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.createDirectories(file.getParent());
+        Files.write(temp, contents);
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.models.BattleRoom;
+import com.battlerooms.models.Region;
+import com.battlerooms.models.RoomTemplate;
+import org.bukkit.Bukkit;
+import org.bukkit.GameRule;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.generator.ChunkGenerator;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clones saved rooms into slots of a dedicated void world when the queue needs more capacity.
+ * Instances are regular, unsaved BattleRooms, so the existing gate and win logic applies to them.
+ * Idle instances stay stamped and are reused by later matches until they have been idle for too long.
+ */
+public class InstanceManager {
+
+    private static final int SLOTS_PER_ROW = 32;
+    private static final long TRIM_INTERVAL_TICKS = 200L;
+
+    /**
+     * Generates empty chunks for the arena world
+     */
+    private static class VoidGenerator extends ChunkGenerator {
+    }
+
+    private static class ArenaInstance {
+        private final BattleRoom room;
+        private final RoomTemplate template;
+        private final int slot;
+        private long idleSince;
+
+        private ArenaInstance(BattleRoom room, RoomTemplate template, int slot) {
+            this.room = room;
+            this.template = template;
+            this.slot = slot;
+        }
+    }
+
+    private final BattleRooms plugin;
+    private final ConfigManager configManager;
+    private final Map<String, RoomTemplate> templates;
+    private final Map<BattleRoom, ArenaInstance> instances;
+    private final Map<BattleRoom.RoomType, Integer> pendingStamps;
+    private final BitSet usedSlots;
+    private World arenaWorld;
+    private BukkitTask trimTask;
+    private int generation;
+
+    public InstanceManager(BattleRooms plugin) {
+        this.plugin = plugin;
+        this.configManager = plugin.getConfigManager();
+        this.templates = new HashMap<>();
+        this.instances = new HashMap<>();
+        this.pendingStamps = new EnumMap<>(BattleRoom.RoomType.class);
+        this.usedSlots = new BitSet();
+    }
+
+    /**
+     * Start the periodic task that recycles idle instances
+     */
+    public void start() {
+        trimTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                trimIdle();
+            }
+        }.runTaskTimer(plugin, TRIM_INTERVAL_TICKS, TRIM_INTERVAL_TICKS);
+    }
+
+    public void shutdown() {
+        if (trimTask != null) {
+            trimTask.cancel();
+            trimTask = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return configManager.isInstancingEnabled();
+    }
+
+    public boolean isInstance(BattleRoom room) {
+        return instances.containsKey(room);
+    }
+
+    /**
+     * Release the instance behind a room and clear its slot, returns false if the room is not an instance
+     */
+    public boolean releaseInstance(BattleRoom room) {
+        ArenaInstance instance = instances.get(room);
+        if (instance == null) return false;
+
+        release(instance);
+        return true;
+    }
+
+    /**
+     * Make sure enough instances of a room type exist or are being stamped
+     */
+    public void requestInstances(BattleRoom.RoomType type, int wanted) {
+        if (!isEnabled()) return;
+
+        int pending = pendingStamps.getOrDefault(type, 0);
+        while (pending < wanted && instances.size() + getTotalPending() < configManager.getMaxInstances()) {
+            RoomTemplate template = getTemplate(type);
+            if (template == null) return;
+
+            Region bounds = template.getBounds();
+            int spacing = configManager.getInstanceSlotSpacing();
+            if (bounds.getSizeX() >= spacing || bounds.getSizeZ() >= spacing) {
+                plugin.getLogger().warning("Room " + template.getSource().getName()
+                        + " is too large for the instance slot spacing of " + spacing + " blocks.");
+                return;
+            }
+
+            World world = getArenaWorld();
+            if (world == null) return;
+
+            int slot = usedSlots.nextClearBit(0);
+            usedSlots.set(slot);
+            pending++;
+            pendingStamps.put(type, pending);
+            stamp(template, world, slot);
+        }
+    }
+
+    /**
+     * Remove every instance and forget all templates, e.g. before rooms are reloaded
+     */
+    public void releaseAll() {
+        generation++;
+        for (ArenaInstance instance : new ArrayList<>(instances.values())) {
+            release(instance);
+        }
+        templates.clear();
+        pendingStamps.clear();
+    }
+
+    private int getTotalPending() {
+        int total = 0;
+        for (int pending : pendingStamps.values()) {
+            total += pending;
+        }
+        return total;
+    }
+
+    /**
+     * Get the template for a room type, capturing it from a saved room the first time it is needed
+     */
+    private RoomTemplate getTemplate(BattleRoom.RoomType type) {
+        BattleRoom source = null;
+        for (BattleRoom room : plugin.getRoomManager().getRooms().values()) {
+            if (room.getType() != type || !room.isComplete() || isInstance(room) || room.getWorld() == null) {
+                continue;
+            }
+            if (source == null || room.getName().compareToIgnoreCase(source.getName()) < 0) {
+                source = room;
+            }
+        }
+        if (source == null) return null;
+
+        RoomTemplate template = templates.get(source.getName().toLowerCase());
+        if (template != null && template.getSource() == source) {
+            return template;
+        }
+
+        // A sealed gate would be copied as glass, so only capture a room that is open
+        if (source.getState() != BattleRoom.RoomState.WAITING) return null;
+
+        RoomTemplate captured = new RoomTemplate(source);
+        World sourceWorld = source.getWorld();
+        String key = source.getName().toLowerCase();
+        long matchStartedAt = source.getMatchStartedAt();
+        templates.put(key, captured);
+        plugin.getRoomManager().getBlockUpdateScheduler().submitBackground(new BlockUpdateScheduler.BlockJob() {
+            @Override
+            public int size() {
+                return captured.getBlockCount();
+            }
+
+            @Override
+            public void apply(int index) {
+                captured.captureBlock(sourceWorld, index);
+            }
+        }, () -> {
+            // The capture spans several ticks; a match that started meanwhile may have sealed the gate or changed blocks
+            BattleRoom capturedSource = captured.getSource();
+            if (capturedSource.getState() != BattleRoom.RoomState.WAITING
+                    || capturedSource.getMatchStartedAt() != matchStartedAt) {
+                captured.discard();
+                templates.remove(key, captured);
+                plugin.getLogger().info("Discarded template of room " + capturedSource.getName()
+                        + ", a match started while it was being captured.");
+                return;
+            }
+            plugin.getLogger().info("Captured template of room " + capturedSource.getName()
+                    + " (" + captured.getBlockCount() + " blocks).");
+        });
+        return captured;
+    }
+
+    /**
+     * Paste a template into a slot and register the resulting room once it is complete.
+     * The capture job of a new template was queued first in the same background queue, so it has finished by the time this runs.
+     */
+    private void stamp(RoomTemplate template, World world, int slot) {
+        int originX = slotOriginX(slot);
+        int originY = configManager.getInstanceBaseY();
+        int originZ = slotOriginZ(slot);
+        int stampGeneration = generation;
+
+        plugin.getRoomManager().getBlockUpdateScheduler().submitBackground(new BlockUpdateScheduler.BlockJob() {
+            @Override
+            public int size() {
+                return template.getBlockCount();
+            }
+
+            @Override
+            public void apply(int index) {
+                template.stampBlock(world, index, originX, originY, originZ);
+            }
+        }, () -> {
+            if (stampGeneration != generation) {
+                // Rooms were reloaded while stamping, discard the stale copy
+                clearSlot(template, world, slot);
+                return;
+            }
+
+            BattleRoom.RoomType type = template.getType();
+            pendingStamps.merge(type, -1, Integer::sum);
+            if (template.isDiscarded()) {
+                // The queue asks for a fresh copy if it still needs instances
+                clearSlot(template, world, slot);
+                return;
+            }
+
+            BattleRoom room = template.createInstance(template.getSource().getName() + "#" + slot,
+                    world, originX, originY, originZ);
+            instances.put(room, new ArenaInstance(room, template, slot));
+            plugin.getRoomManager().addRoom(room);
+        });
+    }
+
+    /**
+     * Recycle instances that have been idle for longer than the configured timeout,
+     * keeping a minimum number of idle instances per room type ready for the queue
+     */
+    private void trimIdle() {
+        long now = System.currentTimeMillis();
+        long timeout = configManager.getInstanceIdleTimeout() * 1000L;
+        int minIdle = configManager.getMinIdleInstances();
+
+        Map<BattleRoom.RoomType, Integer> idleCounts = new EnumMap<>(BattleRoom.RoomType.class);
+        List<ArenaInstance> expired = new ArrayList<>();
+
+        for (ArenaInstance instance : instances.values()) {
+            BattleRoom room = instance.room;
+            boolean idle = room.getState() == BattleRoom.RoomState.WAITING && room.getPlayerCount() == 0;
+            if (!idle) {
+                instance.idleSince = 0;
+                continue;
+            }
+
+            idleCounts.merge(room.getType(), 1, Integer::sum);
+            if (instance.idleSince == 0) {
+                instance.idleSince = now;
+            } else if (now - instance.idleSince >= timeout) {
+                expired.add(instance);
+            }
+        }
+
+        for (ArenaInstance instance : expired) {
+            BattleRoom.RoomType type = instance.room.getType();
+            if (idleCounts.getOrDefault(type, 0) <= minIdle) continue;
+
+            idleCounts.merge(type, -1, Integer::sum);
+            release(instance);
+        }
+    }
+
+    private void release(ArenaInstance instance) {
+        instances.remove(instance.room);
+        plugin.getRoomManager().removeRoom(instance.room.getName());
+
+        World world = instance.room.getWorld();
+        if (world != null) {
+            clearSlot(instance.template, world, instance.slot);
+        } else {
+            usedSlots.clear(instance.slot);
+        }
+    }
+
+    /**
+     * Clear the blocks of a slot and make it available again once done
+     */
+    private void clearSlot(RoomTemplate template, World world, int slot) {
+        Region bounds = template.getBounds();
+        int originX = slotOriginX(slot);
+        int originY = configManager.getInstanceBaseY();
+        int originZ = slotOriginZ(slot);
+
+        plugin.getRoomManager().getBlockUpdateScheduler().submitBackground(new BlockUpdateScheduler.BlockJob() {
+            @Override
+            public int size() {
+                return bounds.getVolume();
+            }
+
+            @Override
+            public void apply(int index) {
+                world.getBlockAt(originX + bounds.getX(index) - bounds.getMinX(),
+                        originY + bounds.getY(index) - bounds.getMinY(),
+                        originZ + bounds.getZ(index) - bounds.getMinZ()).setType(Material.AIR, false);
+            }
+        }, () -> usedSlots.clear(slot));
+    }
+
+    private int slotOriginX(int slot) {
+        return (slot % SLOTS_PER_ROW) * configManager.getInstanceSlotSpacing();
+    }
+
+    private int slotOriginZ(int slot) {
+        return (slot / SLOTS_PER_ROW) * configManager.getInstanceSlotSpacing();
+    }
+
+    /**
+     * Get the arena world, loading or creating it as an empty void world the first time
+     */
+    private World getArenaWorld() {
+        if (arenaWorld != null && Bukkit.getWorld(arenaWorld.getUID()) != null) {
+            return arenaWorld;
+        }
+
+        String name = configManager.getInstanceWorldName();
+        arenaWorld = Bukkit.getWorld(name);
+        if (arenaWorld == null) {
+            arenaWorld = Bukkit.createWorld(new WorldCreator(name)
+                    .generator(new VoidGenerator())
+                    .generateStructures(false));
+            if (arenaWorld == null) {
+                plugin.getLogger().severe("Could not create the arena world " + name + ".");
+                return null;
+            }
+            arenaWorld.setGameRule(GameRule.DO_MOB_SPAWNING, false);
+            arenaWorld.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
+            arenaWorld.setGameRule(GameRule.DO_WEATHER_CYCLE, false);
+            plugin.getLogger().info("Created arena world " + name + ".");
+        }
+        return arenaWorld;
+    }
+}
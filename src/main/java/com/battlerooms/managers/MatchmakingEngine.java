@@ -0,0 +1,144 @@
+package com.battlerooms.managers;
+
+import java.util.Arrays;
+
+/**
+ * Pairs queued players into matches of similar rating.
+ * Every player accepts opponents within a rating gap that starts small and widens the longer they wait,
+ * and a group is only formed when its rating spread fits the gap of every member.
+ * <p>
+ * A pass puts the players into rating buckets with a counting sort, keeping the queue order inside a bucket,
+ * and then slides over that order forming groups greedily. This is O(n) apart from the group checks,
+ * so a pass over thousands of players stays well below a millisecond. The engine holds no mutable state
+ * and is safe to use from any thread.
+ */
+public class MatchmakingEngine {
+
+    private static final int[] NO_GROUPS = new int[0];
+
+    private final double initialGap;
+    private final double widenPerSecond;
+    private final double maxGap;
+    private final double bucketWidth;
+
+    public MatchmakingEngine(double initialGap, double widenPerSecond, double maxGap, double bucketWidth) {
+        this.initialGap = Math.max(0, initialGap);
+        this.widenPerSecond = Math.max(0, widenPerSecond);
+        this.maxGap = Math.max(this.initialGap, maxGap);
+        this.bucketWidth = Math.max(1, bucketWidth);
+    }
+
+    /**
+     * Get the rating gap a player accepts after waiting for the given time
+     */
+    public double getAllowedGap(long waitedMillis) {
+        return Math.min(maxGap, initialGap + widenPerSecond * Math.max(0, waitedMillis) / 1000.0);
+    }
+
+    /**
+     * Form as many groups as possible from a snapshot.
+     * Returns the snapshot positions of the grouped players, one run of getRequiredPlayers() entries per group.
+     * Inside a run the players are in spawn slot order, snake-drafted by rating so the teams come out even.
+     */
+    public int[] pair(QueueSnapshot snapshot) {
+        int size = snapshot.size();
+        int required = snapshot.getType().getRequiredPlayers();
+        if (size < required) return NO_GROUPS;
+
+        int[] order = sortIntoBuckets(snapshot);
+        double[] allowed = new double[size];
+        for (int i = 0; i < size; i++) {
+            allowed[i] = getAllowedGap(snapshot.getTakenAt() - snapshot.getJoinedAt(i));
+        }
+
+        int[] groups = new int[size / required * required];
+        int formed = 0;
+        int start = 0;
+        while (start + required <= size) {
+            double low = Double.MAX_VALUE;
+            double high = -Double.MAX_VALUE;
+            double gap = Double.MAX_VALUE;
+            for (int i = start; i < start + required; i++) {
+                int index = order[i];
+                double rating = snapshot.getRating(index);
+                low = Math.min(low, rating);
+                high = Math.max(high, rating);
+                gap = Math.min(gap, allowed[index]);
+            }
+
+            if (high - low <= gap) {
+                System.arraycopy(order, start, groups, formed, required);
+                draftTeams(snapshot, groups, formed, required);
+                formed += required;
+                start += required;
+            } else {
+                start++;
+            }
+        }
+
+        return formed == groups.length ? groups : Arrays.copyOf(groups, formed);
+    }
+
+    /**
+     * Order the snapshot positions by rating bucket, lowest first, keeping the queue order within a bucket
+     */
+    private int[] sortIntoBuckets(QueueSnapshot snapshot) {
+        int size = snapshot.size();
+        double low = Double.MAX_VALUE;
+        double high = -Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            low = Math.min(low, snapshot.getRating(i));
+            high = Math.max(high, snapshot.getRating(i));
+        }
+
+        // Never use more buckets than players, so very spread out ratings do not make the pass slower
+        double width = Math.max(bucketWidth, (high - low) / size);
+        int buckets = (int) ((high - low) / width) + 1;
+
+        int[] starts = new int[buckets + 1];
+        int[] bucketOf = new int[size];
+        for (int i = 0; i < size; i++) {
+            bucketOf[i] = Math.min(buckets - 1, (int) ((snapshot.getRating(i) - low) / width));
+            starts[bucketOf[i] + 1]++;
+        }
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            starts[bucket + 1] += starts[bucket];
+        }
+
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[starts[bucketOf[i]]++] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Reorder one group so that slot i, which plays for team i % teamCount, gets players in snake draft order:
+     * the strongest player goes to the first team, the next ones to the following teams and back again.
+     */
+    private static void draftTeams(QueueSnapshot snapshot, int[] groups, int offset, int required) {
+        int teamCount = snapshot.getType().getTeamCount();
+        if (teamCount >= required) return; // Everyone plays alone
+
+        // Groups hold at most a handful of players, so an insertion sort by rating is enough
+        for (int i = offset + 1; i < offset + required; i++) {
+            int index = groups[i];
+            double rating = snapshot.getRating(index);
+            int j = i - 1;
+            while (j >= offset && snapshot.getRating(groups[j]) < rating) {
+                groups[j + 1] = groups[j];
+                j--;
+            }
+            groups[j + 1] = index;
+        }
+
+        int[] drafted = new int[required];
+        for (int pick = 0; pick < required; pick++) {
+            int round = pick / teamCount;
+            int position = pick % teamCount;
+            int team = round % 2 == 0 ? position : teamCount - 1 - position;
+            drafted[round * teamCount + team] = groups[offset + pick];
+        }
+        System.arraycopy(drafted, 0, groups, offset, required);
+    }
+}
@@ -0,0 +1,112 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.models.BattleRoom;
+import com.battlerooms.models.Region;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Remembers, per player, the last room lookup together with a box in which its answer cannot change.
+ * Inside a room the box is the room region. Outside of rooms it is the largest empty area
+ * the index can vouch for: a 128x128 block area without rooms, or else an empty chunk.
+ * Moves that stay inside the box are answered without touching the index.
+ */
+public class PlayerMoveCache {
+
+    private static final int NO_LIMIT_MIN = Integer.MIN_VALUE;
+    private static final int NO_LIMIT_MAX = Integer.MAX_VALUE;
+
+    private static class Entry {
+        private UUID worldId;
+        private int version = -1;
+        private BattleRoom room;
+        private int minX;
+        private int minY;
+        private int minZ;
+        private int maxX;
+        private int maxY;
+        private int maxZ;
+
+        private boolean covers(UUID worldId, int version, int x, int y, int z) {
+            return this.version == version && worldId.equals(this.worldId)
+                    && x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+        }
+
+        private void set(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+        }
+    }
+
+    private final RoomIndex roomIndex;
+    private final Map<UUID, Entry> entries;
+
+    public PlayerMoveCache(RoomIndex roomIndex) {
+        this.roomIndex = roomIndex;
+        this.entries = new HashMap<>();
+    }
+
+    /**
+     * Get the room at a location a player moved through, using the player's cached box when it applies
+     */
+    public BattleRoom getRoomAt(UUID playerId, Location location) {
+        World world = location.getWorld();
+        if (world == null) return null;
+
+        UUID worldId = world.getUID();
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+
+        Entry entry = entries.get(playerId);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(playerId, entry);
+        } else if (entry.covers(worldId, roomIndex.getVersion(), x, y, z)) {
+            return entry.room;
+        }
+
+        BattleRoom room = roomIndex.getRoomAt(location);
+        entry.worldId = worldId;
+        entry.version = roomIndex.getVersion();
+        entry.room = room;
+
+        if (room != null) {
+            Region region = room.getRegion();
+            entry.set(region.getMinX(), region.getMinY(), region.getMinZ(),
+                    region.getMaxX(), region.getMaxY(), region.getMaxZ());
+        } else if (!roomIndex.hasRoomsInArea(worldId, x >> RoomIndex.AREA_SHIFT, z >> RoomIndex.AREA_SHIFT)) {
+            int areaX = x >> RoomIndex.AREA_SHIFT << RoomIndex.AREA_SHIFT;
+            int areaZ = z >> RoomIndex.AREA_SHIFT << RoomIndex.AREA_SHIFT;
+            int size = 1 << RoomIndex.AREA_SHIFT;
+            entry.set(areaX, NO_LIMIT_MIN, areaZ, areaX + size - 1, NO_LIMIT_MAX, areaZ + size - 1);
+        } else if (!roomIndex.hasRoomsInChunk(worldId, x >> 4, z >> 4)) {
+            int chunkX = x >> 4 << 4;
+            int chunkZ = z >> 4 << 4;
+            entry.set(chunkX, NO_LIMIT_MIN, chunkZ, chunkX + 15, NO_LIMIT_MAX, chunkZ + 15);
+        } else {
+            // Right next to a room, only this block is known to be outside
+            entry.set(x, y, z, x, y, z);
+        }
+        return room;
+    }
+
+    /**
+     * Forget a player's cached box, e.g. after a teleport or world change
+     */
+    public void invalidate(UUID playerId) {
+        entries.remove(playerId);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,315 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.metrics.Metric;
+import com.battlerooms.models.BattleRoom;
+import com.battlerooms.network.ArenaNetwork;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Matchmaking queue that fills free rooms by teleporting queued players in.
+ * Once a second the waiting players are copied into immutable snapshots, which the matchmaking engine
+ * pairs by rating on a background thread; the finished groups come back to the main thread to start rooms.
+ */
+public class QueueManager {
+
+    private static final long PROCESS_INTERVAL_TICKS = 20L;
+
+    private final BattleRooms plugin;
+    private final RoomManager roomManager;
+    private final Map<BattleRoom.RoomType, LinkedHashMap<UUID, QueuedPlayer>> queues;
+    private final Map<UUID, BattleRoom.RoomType> queuedPlayers;
+    private final Map<UUID, Location> returnLocations; // Where queued players were before being teleported in, kept until they are sent back
+    private final MatchmakingEngine engine;
+    private BukkitTask task;
+    private boolean passRunning;
+
+    public QueueManager(BattleRooms plugin) {
+        this.plugin = plugin;
+        this.roomManager = plugin.getRoomManager();
+        this.queues = new EnumMap<>(BattleRoom.RoomType.class);
+        this.queuedPlayers = new ConcurrentHashMap<>();
+        this.returnLocations = new HashMap<>();
+
+        ConfigManager config = plugin.getConfigManager();
+        this.engine = new MatchmakingEngine(config.getMatchmakingInitialGap(), config.getMatchmakingWidenPerSecond(),
+                config.getMatchmakingMaxGap(), config.getMatchmakingBucketWidth());
+
+        for (BattleRoom.RoomType type : BattleRoom.RoomType.values()) {
+            queues.put(type, new LinkedHashMap<>());
+        }
+    }
+
+    /**
+     * Start the periodic task that matches queued players
+     */
+    public void start() {
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                processQueues();
+            }
+        }.runTaskTimer(plugin, PROCESS_INTERVAL_TICKS, PROCESS_INTERVAL_TICKS);
+    }
+
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queuedPlayers.clear();
+        returnLocations.clear();
+        queues.values().forEach(Map::clear);
+    }
+
+    /**
+     * Add a player to the queue for a room type
+     */
+    public boolean joinQueue(Player player, BattleRoom.RoomType type) {
+        if (roomManager.getPlayerRoom(player) != null) {
+            player.sendMessage("§cYou are already in a room!");
+            return false;
+        }
+
+        // Servers without rooms of the type, such as a lobby, hand the player to a server that has space
+        ArenaNetwork network = plugin.getNetwork();
+        if (network != null && !queuedPlayers.containsKey(player.getUniqueId()) && !roomManager.hasRoomsOfType(type)
+                && network.sendToRemoteRoom(player, type)) {
+            return true;
+        }
+
+        BattleRoom.RoomType current = queuedPlayers.putIfAbsent(player.getUniqueId(), type);
+        if (current != null) {
+            player.sendMessage("§cYou are already queued for " + current.getDisplayName() + "! Use /battlerooms queue leave first.");
+            return false;
+        }
+
+        double rating = plugin.getRatings().getRatingValue(player.getUniqueId(), type);
+        queues.get(type).put(player.getUniqueId(), new QueuedPlayer(rating, System.currentTimeMillis()));
+        player.sendMessage("§aYou joined the " + type.getDisplayName() + " queue §7(rating " + Math.round(rating) + ")§a.");
+        return true;
+    }
+
+    /**
+     * Remove a player from whichever queue they are in
+     */
+    public boolean leaveQueue(Player player) {
+        BattleRoom.RoomType type = queuedPlayers.remove(player.getUniqueId());
+        if (type == null) {
+            return false;
+        }
+
+        queues.get(type).remove(player.getUniqueId());
+        return true;
+    }
+
+    public boolean isQueued(Player player) {
+        return queuedPlayers.containsKey(player.getUniqueId());
+    }
+
+    /**
+     * Send players that were teleported in by the queue back to where they queued from.
+     * Players who are offline or dead keep their return location until they join or respawn.
+     */
+    public void returnPlayers(Collection<UUID> playerIds) {
+        for (UUID playerId : playerIds) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || player.isDead()) continue;
+
+            Location location = returnLocations.remove(playerId);
+            if (location != null && location.isWorldLoaded()) {
+                player.teleport(location);
+            }
+        }
+    }
+
+    /**
+     * Take the location a player was teleported in from, or null if they have none or are still in a room
+     */
+    public Location takeReturnLocation(Player player) {
+        if (roomManager.getPlayerRoom(player) != null) return null;
+
+        Location location = returnLocations.remove(player.getUniqueId());
+        return location != null && location.isWorldLoaded() ? location : null;
+    }
+
+    /**
+     * Snapshot every queue with enough players for a match and pair them in the background.
+     * Only one pass runs at a time; a pass that is still running when the next one is due delays it.
+     */
+    public void processQueues() {
+        if (passRunning) return;
+
+        List<QueueSnapshot> snapshots = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (BattleRoom.RoomType type : BattleRoom.RoomType.values()) {
+            LinkedHashMap<UUID, QueuedPlayer> queue = queues.get(type);
+            removeUnavailable(queue, type);
+            if (queue.size() >= type.getRequiredPlayers()) {
+                snapshots.add(snapshot(type, queue, now));
+            }
+        }
+        if (snapshots.isEmpty()) return;
+
+        passRunning = true;
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                List<int[]> groups = null;
+                try {
+                    long start = System.nanoTime();
+                    List<int[]> paired = new ArrayList<>(snapshots.size());
+                    for (QueueSnapshot snapshot : snapshots) {
+                        paired.add(engine.pair(snapshot));
+                    }
+                    plugin.getMetrics().record(Metric.MATCHMAKING_PASS, System.nanoTime() - start);
+                    groups = paired;
+                } catch (RuntimeException e) {
+                    plugin.getLogger().log(Level.SEVERE, "Matchmaking pass failed", e);
+                } finally {
+                    finishPass(snapshots, groups);
+                }
+            }
+        }.runTaskAsynchronously(plugin);
+    }
+
+    /**
+     * Hand the result of a pass back to the main thread, which clears the running flag whether or not pairing worked
+     */
+    private void finishPass(List<QueueSnapshot> snapshots, List<int[]> groups) {
+        try {
+            new BukkitRunnable() {
+                @Override
+                public void run() {
+                    passRunning = false;
+                    if (task == null || groups == null) return; // Shut down while pairing, or the pass failed
+                    for (int i = 0; i < snapshots.size(); i++) {
+                        startMatches(snapshots.get(i), groups.get(i));
+                    }
+                }
+            }.runTask(plugin);
+        } catch (IllegalPluginAccessException e) {
+            // Disabled while pairing, no main-thread task will run anymore
+            passRunning = false;
+        }
+    }
+
+    /**
+     * Drop queue entries of players who went offline or ended up in a room some other way
+     */
+    private void removeUnavailable(LinkedHashMap<UUID, QueuedPlayer> queue, BattleRoom.RoomType type) {
+        Iterator<UUID> iterator = queue.keySet().iterator();
+        while (iterator.hasNext()) {
+            UUID playerId = iterator.next();
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline() || roomManager.getPlayerRoom(player) != null) {
+                iterator.remove();
+                queuedPlayers.remove(playerId, type);
+            }
+        }
+    }
+
+    private QueueSnapshot snapshot(BattleRoom.RoomType type, LinkedHashMap<UUID, QueuedPlayer> queue, long now) {
+        int size = queue.size();
+        long[] mostBits = new long[size];
+        long[] leastBits = new long[size];
+        double[] ratings = new double[size];
+        long[] joinedAt = new long[size];
+
+        int i = 0;
+        for (Map.Entry<UUID, QueuedPlayer> entry : queue.entrySet()) {
+            mostBits[i] = entry.getKey().getMostSignificantBits();
+            leastBits[i] = entry.getKey().getLeastSignificantBits();
+            ratings[i] = entry.getValue().rating;
+            joinedAt[i] = entry.getValue().joinedAt;
+            i++;
+        }
+        return new QueueSnapshot(type, now, mostBits, leastBits, ratings, joinedAt);
+    }
+
+    /**
+     * Start rooms for the groups of a finished pass. Groups with a player who left the queue since the snapshot
+     * are skipped, the rest of that group stays queued for the next pass.
+     */
+    private void startMatches(QueueSnapshot snapshot, int[] groups) {
+        BattleRoom.RoomType type = snapshot.getType();
+        LinkedHashMap<UUID, QueuedPlayer> queue = queues.get(type);
+        int required = type.getRequiredPlayers();
+
+        for (int offset = 0; offset < groups.length; offset += required) {
+            List<Player> batch = collectGroup(snapshot, groups, offset, required, queue);
+            if (batch == null) continue;
+
+            BattleRoom room = roomManager.findFreeRoom(type);
+            if (room == null) {
+                // Ask for arena instances for every group that is still waiting
+                plugin.getInstanceManager().requestInstances(type, (groups.length - offset) / required);
+                return;
+            }
+            startMatch(room, batch, queue);
+        }
+    }
+
+    private List<Player> collectGroup(QueueSnapshot snapshot, int[] groups, int offset, int required,
+                                      Map<UUID, QueuedPlayer> queue) {
+        List<Player> batch = new ArrayList<>(required);
+        for (int i = offset; i < offset + required; i++) {
+            int index = groups[i];
+            UUID playerId = snapshot.getPlayer(index);
+            QueuedPlayer queued = queue.get(playerId);
+            // A different join time means the player left and queued again after the snapshot
+            if (queued == null || queued.joinedAt != snapshot.getJoinedAt(index)) return null;
+
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline() || roomManager.getPlayerRoom(player) != null) return null;
+            batch.add(player);
+        }
+        return batch;
+    }
+
+    private void startMatch(BattleRoom room, List<Player> players, Map<UUID, QueuedPlayer> queue) {
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            queuedPlayers.remove(player.getUniqueId());
+            queue.remove(player.getUniqueId());
+
+            Location spawn = room.getSpawnPoint(i);
+            if (spawn != null) {
+                returnLocations.put(player.getUniqueId(), player.getLocation());
+                player.teleport(spawn);
+            }
+            // Teleports do not fire the move listener, so enter the room explicitly
+            roomManager.handlePlayerEnterRoom(player, room);
+        }
+    }
+
+    /**
+     * Rating and join time of a queued player, fixed for as long as they wait
+     */
+    private static final class QueuedPlayer {
+        final double rating;
+        final long joinedAt;
+
+        QueuedPlayer(double rating, long joinedAt) {
+            this.rating = rating;
+            this.joinedAt = joinedAt;
+        }
+    }
+}
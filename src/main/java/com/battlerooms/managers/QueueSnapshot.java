@@ -0,0 +1,59 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.models.BattleRoom;
+
+import java.util.UUID;
+
+/**
+ * Immutable copy of the players waiting for one room type, in the order they joined.
+ * Built on the main thread and handed to a background thread for the pairing pass.
+ */
+public final class QueueSnapshot {
+
+    private final BattleRoom.RoomType type;
+    private final long takenAt;
+    private final long[] mostBits;
+    private final long[] leastBits;
+    private final double[] ratings;
+    private final long[] joinedAt;
+
+    /**
+     * Create a snapshot that takes ownership of the given arrays, which must not be changed afterwards
+     */
+    public QueueSnapshot(BattleRoom.RoomType type, long takenAt, long[] mostBits, long[] leastBits,
+                         double[] ratings, long[] joinedAt) {
+        this.type = type;
+        this.takenAt = takenAt;
+        this.mostBits = mostBits;
+        this.leastBits = leastBits;
+        this.ratings = ratings;
+        this.joinedAt = joinedAt;
+    }
+
+    public BattleRoom.RoomType getType() {
+        return type;
+    }
+
+    /**
+     * Get the time in milliseconds at which the snapshot was taken
+     */
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    public int size() {
+        return ratings.length;
+    }
+
+    public UUID getPlayer(int index) {
+        return new UUID(mostBits[index], leastBits[index]);
+    }
+
+    public double getRating(int index) {
+        return ratings[index];
+    }
+
+    public long getJoinedAt(int index) {
+        return joinedAt[index];
+    }
+}
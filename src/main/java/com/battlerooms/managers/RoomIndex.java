@@ -0,0 +1,231 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.models.BattleRoom;
+import com.battlerooms.models.Region;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-world spatial indexes of rooms.
+ * Room lookups are bucketed by chunk, protection checks by 16x16x16 chunk section
+ * so that only rooms whose walls, floor, ceiling or gate touch the section are tested.
+ * A coarse set of 128x128 block areas that contain rooms lets callers skip whole empty areas.
+ */
+public class RoomIndex {
+
+    static final int AREA_SHIFT = 7;
+
+    private final Map<UUID, Map<Long, List<BattleRoom>>> roomsByChunk;
+    private final Map<UUID, Map<Long, List<BattleRoom>>> shellsBySection;
+    private final Map<UUID, Set<Long>> areasWithRooms;
+    private int version;
+
+    public RoomIndex() {
+        this.roomsByChunk = new HashMap<>();
+        this.shellsBySection = new HashMap<>();
+        this.areasWithRooms = new HashMap<>();
+    }
+
+    /**
+     * Get a counter that changes whenever rooms are added to or removed from the index
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Check if any room overlaps a chunk
+     */
+    public boolean hasRoomsInChunk(UUID worldId, int chunkX, int chunkZ) {
+        Map<Long, List<BattleRoom>> chunks = roomsByChunk.get(worldId);
+        return chunks != null && chunks.containsKey(chunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * Check if any room overlaps a 128x128 block area, addressed by block coordinate shifted by AREA_SHIFT
+     */
+    public boolean hasRoomsInArea(UUID worldId, int areaX, int areaZ) {
+        Set<Long> areas = areasWithRooms.get(worldId);
+        return areas != null && areas.contains(chunkKey(areaX, areaZ));
+    }
+
+    /**
+     * Rebuild the index from scratch
+     */
+    public void rebuild(Collection<BattleRoom> rooms) {
+        roomsByChunk.clear();
+        shellsBySection.clear();
+        areasWithRooms.clear();
+        version++;
+        for (BattleRoom room : rooms) {
+            add(room);
+        }
+    }
+
+    /**
+     * Get the room containing a location, or null if there is none
+     */
+    public BattleRoom getRoomAt(Location location) {
+        World world = location.getWorld();
+        if (world == null) return null;
+
+        Map<Long, List<BattleRoom>> chunks = roomsByChunk.get(world.getUID());
+        if (chunks == null) return null;
+
+        List<BattleRoom> candidates = chunks.get(chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4));
+        if (candidates == null) return null;
+
+        for (int i = 0; i < candidates.size(); i++) {
+            BattleRoom room = candidates.get(i);
+            if (room.isInRoom(location)) {
+                return room;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if a location is part of a protected room shell or gate
+     */
+    public boolean isProtected(Location location) {
+        World world = location.getWorld();
+        if (world == null) return false;
+
+        Map<Long, List<BattleRoom>> sections = shellsBySection.get(world.getUID());
+        if (sections == null) return false;
+
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+        List<BattleRoom> candidates = sections.get(sectionKey(x >> 4, y >> 4, z >> 4));
+        if (candidates == null) return false;
+
+        for (int i = 0; i < candidates.size(); i++) {
+            BattleRoom room = candidates.get(i);
+            if (room.isOnBoundary(location) || room.isGateBlock(location)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drop every room of a world from the index, e.g. when the world unloads
+     */
+    public void removeWorld(UUID worldId) {
+        roomsByChunk.remove(worldId);
+        shellsBySection.remove(worldId);
+        areasWithRooms.remove(worldId);
+        version++;
+    }
+
+    /**
+     * Add a single room to the index
+     */
+    public void add(BattleRoom room) {
+        addToChunks(room);
+        addToSections(room);
+        version++;
+    }
+
+    private void addToChunks(BattleRoom room) {
+        Region region = room.getRegion();
+        if (region == null || room.getWorldId() == null) return;
+
+        int minChunkX = region.getMinX() >> 4;
+        int maxChunkX = region.getMaxX() >> 4;
+        int minChunkZ = region.getMinZ() >> 4;
+        int maxChunkZ = region.getMaxZ() >> 4;
+
+        Map<Long, List<BattleRoom>> chunks = roomsByChunk.computeIfAbsent(room.getWorldId(), k -> new HashMap<>());
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                chunks.computeIfAbsent(chunkKey(chunkX, chunkZ), k -> new ArrayList<>(1)).add(room);
+            }
+        }
+
+        Set<Long> areas = areasWithRooms.computeIfAbsent(room.getWorldId(), k -> new HashSet<>());
+        for (int areaX = region.getMinX() >> AREA_SHIFT; areaX <= region.getMaxX() >> AREA_SHIFT; areaX++) {
+            for (int areaZ = region.getMinZ() >> AREA_SHIFT; areaZ <= region.getMaxZ() >> AREA_SHIFT; areaZ++) {
+                areas.add(chunkKey(areaX, areaZ));
+            }
+        }
+    }
+
+    private void addToSections(BattleRoom room) {
+        if (room.getWorldId() == null) return;
+        Map<Long, List<BattleRoom>> sections = shellsBySection.computeIfAbsent(room.getWorldId(), k -> new HashMap<>());
+
+        Region region = room.getRegion();
+        if (region != null) {
+            forEachSection(region, (sectionX, sectionY, sectionZ) -> {
+                if (sectionTouchesShell(region, sectionX, sectionY, sectionZ)) {
+                    addToBucket(sections, sectionKey(sectionX, sectionY, sectionZ), room);
+                }
+            });
+        }
+
+        Region gateRegion = room.getGateRegion();
+        if (gateRegion != null) {
+            forEachSection(gateRegion, (sectionX, sectionY, sectionZ) ->
+                    addToBucket(sections, sectionKey(sectionX, sectionY, sectionZ), room));
+        }
+    }
+
+    /**
+     * A section overlaps the shell unless it lies entirely inside the hollow interior
+     */
+    private static boolean sectionTouchesShell(Region region, int sectionX, int sectionY, int sectionZ) {
+        int minX = sectionX << 4;
+        int minY = sectionY << 4;
+        int minZ = sectionZ << 4;
+        int maxX = minX + 15;
+        int maxY = minY + 15;
+        int maxZ = minZ + 15;
+
+        boolean insideInterior = minX > region.getMinX() && maxX < region.getMaxX()
+                && minY > region.getMinY() && maxY < region.getMaxY()
+                && minZ > region.getMinZ() && maxZ < region.getMaxZ();
+        return !insideInterior;
+    }
+
+    private static void forEachSection(Region region, SectionConsumer consumer) {
+        for (int sectionX = region.getMinX() >> 4; sectionX <= region.getMaxX() >> 4; sectionX++) {
+            for (int sectionY = region.getMinY() >> 4; sectionY <= region.getMaxY() >> 4; sectionY++) {
+                for (int sectionZ = region.getMinZ() >> 4; sectionZ <= region.getMaxZ() >> 4; sectionZ++) {
+                    consumer.accept(sectionX, sectionY, sectionZ);
+                }
+            }
+        }
+    }
+
+    private static void addToBucket(Map<Long, List<BattleRoom>> buckets, long key, BattleRoom room) {
+        List<BattleRoom> bucket = buckets.computeIfAbsent(key, k -> new ArrayList<>(1));
+        // Rooms are added one at a time, so a duplicate can only be the last entry
+        if (bucket.isEmpty() || bucket.get(bucket.size() - 1) != room) {
+            bucket.add(room);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SectionConsumer {
+        void accept(int sectionX, int sectionY, int sectionZ);
+    }
+
+    static long sectionKey(int sectionX, int sectionY, int sectionZ) {
+        return ((long) (sectionX & 0x3FFFFF) << 42) | ((long) (sectionZ & 0x3FFFFF) << 20) | (sectionY & 0xFFFFF);
+    }
+
+    static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+}
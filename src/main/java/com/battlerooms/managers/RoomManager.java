@@ -1,11 +1,23 @@
 package com.battlerooms.managers;
 
 import com.battlerooms.BattleRooms;
+import com.battlerooms.history.MatchHistory;
+import com.battlerooms.history.MatchRecord;
+import com.battlerooms.metrics.Metric;
+import com.battlerooms.models.ArenaSnapshot;
 import com.battlerooms.models.BattleRoom;
+import com.battlerooms.models.TeamRoster;
+import com.battlerooms.network.ArenaNetwork;
+import com.battlerooms.ratings.PlayerRatings;
+import net.md_5.bungee.api.ChatMessageType;
+import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.potion.PotionEffect;
+import org.bukkit.potion.PotionEffectType;
 
 import java.util.*;
 
@@ -18,25 +30,135 @@ public class RoomManager {
     private final ConfigManager configManager;
     private final Map<String, BattleRoom> rooms;
     private final Map<UUID, BattleRoom> creatingRoom; // Players currently creating rooms
+    private final Map<UUID, BattleRoom> playerRooms; // Authoritative player -> room index
+    private final RoomIndex roomIndex;
+    private final PlayerMoveCache moveCache;
+    private final BlockUpdateScheduler blockUpdateScheduler;
+    private final RoomTimerWheel timers;
+    private final Set<BattleRoom> countdownRooms; // Rooms whose players are frozen
+    private final RoomStatePublisher snapshots;
 
     public RoomManager(BattleRooms plugin, ConfigManager configManager) {
         this.plugin = plugin;
         this.configManager = configManager;
         this.rooms = new HashMap<>();
         this.creatingRoom = new HashMap<>();
+        this.playerRooms = new HashMap<>();
+        this.roomIndex = new RoomIndex();
+        this.moveCache = new PlayerMoveCache(roomIndex);
+        this.blockUpdateScheduler = new BlockUpdateScheduler(plugin, configManager);
+        this.timers = new RoomTimerWheel(plugin);
+        this.countdownRooms = new HashSet<>();
+        this.snapshots = new RoomStatePublisher(plugin);
     }
 
     public void loadRooms() {
-        rooms.clear();
-        rooms.putAll(configManager.loadRooms());
+        int unbound = replaceRooms(configManager.loadRooms());
+
         plugin.getLogger().info("Loaded " + rooms.size() + " battle rooms.");
+        if (unbound > 0) {
+            plugin.getLogger().info(unbound + " rooms are waiting for their world to load.");
+        }
+    }
+
+    /**
+     * Retire every registered room and register the given ones instead, returns how many wait for their world to load
+     */
+    int replaceRooms(Map<String, BattleRoom> loaded) {
+        for (BattleRoom room : rooms.values()) {
+            retireRoom(room);
+        }
+        rooms.clear();
+        playerRooms.clear();
+        moveCache.clear();
+        rooms.putAll(loaded);
+
+        // Rooms in worlds that are not loaded yet are bound later by the world listener
+        int unbound = 0;
+        for (BattleRoom room : rooms.values()) {
+            World world = Bukkit.getWorld(room.getWorldName());
+            if (world != null) {
+                room.bindWorld(world);
+            } else {
+                unbound++;
+            }
+        }
+        roomIndex.rebuild(rooms.values());
+        rooms.values().forEach(this::roomChanged);
+        return unbound;
+    }
+
+    /**
+     * Bind the rooms of a world that has just been loaded and add them to the index
+     */
+    public void bindWorld(World world) {
+        int bound = 0;
+        for (BattleRoom room : rooms.values()) {
+            if (room.getWorld() == null && room.getWorldName().equals(world.getName())) {
+                room.bindWorld(world);
+                roomIndex.add(room);
+                bound++;
+            }
+        }
+        if (bound > 0) {
+            plugin.getLogger().info("Bound " + bound + " battle rooms to world " + world.getName() + ".");
+        }
+    }
+
+    /**
+     * Check if a room in a world is in a match or still being reset, so the world must stay loaded
+     */
+    public boolean isWorldInUse(World world) {
+        for (BattleRoom room : rooms.values()) {
+            if (world.getUID().equals(room.getWorldId()) && room.getState() != BattleRoom.RoomState.WAITING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Detach the rooms of an unloading world, keeping their coordinates for the next load
+     */
+    public void unbindWorld(World world) {
+        roomIndex.removeWorld(world.getUID());
+        for (BattleRoom room : rooms.values()) {
+            if (world.getUID().equals(room.getWorldId())) {
+                room.unbindWorld();
+            }
+        }
     }
 
     public void reloadRooms() {
         configManager.reloadConfig();
+        plugin.getInstanceManager().releaseAll();
         loadRooms();
     }
 
+    /**
+     * Apply pending block updates before the plugin shuts down
+     */
+    public void shutdown() {
+        timers.shutdown();
+        blockUpdateScheduler.flush();
+        snapshots.publish();
+    }
+
+    public BlockUpdateScheduler getBlockUpdateScheduler() {
+        return blockUpdateScheduler;
+    }
+
+    public RoomTimerWheel getTimers() {
+        return timers;
+    }
+
+    /**
+     * Get the latest snapshot of all rooms, safe to call from any thread. It trails the live rooms by at most a tick.
+     */
+    public ArenaSnapshot getSnapshot() {
+        return snapshots.get();
+    }
+
     public Map<String, BattleRoom> getRooms() {
         return rooms;
     }
@@ -87,42 +209,109 @@ public class RoomManager {
             return false;
         }
 
-        rooms.put(room.getName().toLowerCase(), room);
+        addRoom(room);
         configManager.saveRoom(room);
         creatingRoom.remove(player.getUniqueId());
         return true;
     }
 
     /**
-     * Delete a room
+     * Register a complete room without persisting it
+     */
+    public void addRoom(BattleRoom room) {
+        BattleRoom previous = rooms.put(room.getName().toLowerCase(), room);
+        if (previous != null) {
+            retireRoom(previous);
+            roomIndex.rebuild(rooms.values());
+        } else {
+            roomIndex.add(room);
+        }
+        roomChanged(room);
+    }
+
+    /**
+     * Delete a room; an arena instance is released instead, as it was never saved
      */
     public boolean deleteRoom(String name) {
+        BattleRoom room = getRoom(name);
+        if (room == null) {
+            return false;
+        }
+
+        InstanceManager instanceManager = plugin != null ? plugin.getInstanceManager() : null;
+        if (instanceManager != null && instanceManager.releaseInstance(room)) {
+            return true;
+        }
+
+        removeRoom(name);
+        configManager.deleteRoom(name);
+        return true;
+    }
+
+    /**
+     * Unregister a room without touching the configuration
+     */
+    public BattleRoom removeRoom(String name) {
         BattleRoom room = rooms.remove(name.toLowerCase());
         if (room != null) {
-            configManager.deleteRoom(name);
-            return true;
+            retireRoom(room);
+            roomIndex.rebuild(rooms.values());
         }
-        return false;
+        return room;
+    }
+
+    /**
+     * Stop the timers of a room that is being unregistered and put its blocks back if a match used it
+     */
+    private void retireRoom(BattleRoom room) {
+        snapshots.roomRemoved(room);
+        ArenaNetwork network = getNetwork();
+        if (network != null) {
+            network.roomRemoved(room);
+        }
+        timers.cancelAll(room);
+        clearSuddenDeath(room);
+        sendPlayersAway(room);
+        untrackPlayers(room);
+        countdownRooms.remove(room);
+        if (room.isInMatch()) {
+            recordMatch(room, MatchRecord.EndCause.ROOM_REMOVED, -1);
+        }
+        room.clearPlayers();
+        room.getTeams().clear();
+        if (room.getState() != BattleRoom.RoomState.WAITING) {
+            blockUpdateScheduler.resetArena(room, () -> blockUpdateScheduler.restoreGate(room, () -> { }));
+        }
+    }
+
+    /**
+     * Check if a room is still registered; callbacks of a removed room must not revive it
+     */
+    private boolean isRegistered(BattleRoom room) {
+        return rooms.get(room.getName().toLowerCase()) == room;
     }
 
     /**
      * Get the room a player is currently in
      */
     public BattleRoom getPlayerRoom(Player player) {
-        for (BattleRoom room : rooms.values()) {
-            if (room.getPlayersInRoom().contains(player.getUniqueId())) {
-                return room;
-            }
-        }
-        return null;
+        return playerRooms.get(player.getUniqueId());
     }
 
     /**
      * Get the room at a specific location
      */
     public BattleRoom getRoomAtLocation(Location location) {
+        return roomIndex.getRoomAt(location);
+    }
+
+    /**
+     * Find an empty, waiting room of the given type whose world is loaded
+     */
+    public BattleRoom findFreeRoom(BattleRoom.RoomType type) {
         for (BattleRoom room : rooms.values()) {
-            if (room.isInRoom(location)) {
+            if (room.getType() == type && room.getState() == BattleRoom.RoomState.WAITING
+                    && room.getPlayerCount() == 0 && room.isComplete() && room.getWorld() != null) {
                 return room;
             }
         }
@@ -130,11 +319,48 @@ public class RoomManager {
     }
 
     /**
-     * Check if a player is in any active room
+     * Check if a player is in any room with a match counting down or running
      */
     public boolean isPlayerInActiveRoom(Player player) {
         BattleRoom room = getPlayerRoom(player);
-        return room != null && room.getState() == BattleRoom.RoomState.ACTIVE;
+        return room != null && room.isInMatch();
+    }
+
+    /**
+     * Check if a player has to stay in place because their room is counting down to the fight
+     */
+    public boolean isFrozen(Player player) {
+        // Checked on every move event, skip the lookup while no room is counting down
+        if (countdownRooms.isEmpty()) return false;
+
+        BattleRoom room = playerRooms.get(player.getUniqueId());
+        return room != null && room.getState() == BattleRoom.RoomState.COUNTDOWN;
+    }
+
+    /**
+     * Handle a player moving to a new block, detecting room entry and exit
+     */
+    public void handlePlayerMove(Player player, Location from, Location to) {
+        // Check if player entered or left any room, most moves are answered by the player's cached bounds
+        BattleRoom fromRoom = moveCache.getRoomAt(player.getUniqueId(), from);
+        BattleRoom toRoom = moveCache.getRoomAt(player.getUniqueId(), to);
+
+        // Player leaving a room
+        if (fromRoom != null && toRoom == null) {
+            handlePlayerLeaveRoom(player, fromRoom);
+        }
+
+        // Player entering a room
+        if (toRoom != null && fromRoom != toRoom) {
+            handlePlayerEnterRoom(player, toRoom);
+        }
+    }
+
+    /**
+     * Forget the cached room bounds of a player whose position jumped, e.g. by teleport or world change
+     */
+    public void invalidateMoveCache(Player player) {
+        moveCache.invalidate(player.getUniqueId());
     }
 
     /**
@@ -146,11 +372,24 @@ public class RoomManager {
         }
 
         // Check if player is already in this room
-        if (room.getPlayersInRoom().contains(player.getUniqueId())) {
+        if (room.hasPlayer(player.getUniqueId())) {
             return;
         }
 
+        // Walking straight from one waiting room into another leaves the first one;
+        // a player still held by a match or cooldown elsewhere cannot join a second room
+        BattleRoom previousRoom = playerRooms.get(player.getUniqueId());
+        if (previousRoom != null) {
+            if (previousRoom.getState() != BattleRoom.RoomState.WAITING) {
+                return;
+            }
+            previousRoom.removePlayer(player.getUniqueId());
+            roomChanged(previousRoom);
+        }
+
         room.addPlayer(player.getUniqueId());
+        playerRooms.put(player.getUniqueId(), room);
+        roomChanged(room);
         player.sendMessage("§aYou have entered the " + room.getName() + " room (" + 
                 room.getType().getDisplayName() + ")");
 
@@ -164,27 +403,116 @@ public class RoomManager {
      * Handle player leaving a room
      */
     public void handlePlayerLeaveRoom(Player player, BattleRoom room) {
-        if (!room.getPlayersInRoom().contains(player.getUniqueId())) {
+        if (!room.hasPlayer(player.getUniqueId())) {
             return;
         }
 
         // Only remove if room is waiting
         if (room.getState() == BattleRoom.RoomState.WAITING) {
             room.removePlayer(player.getUniqueId());
+            playerRooms.remove(player.getUniqueId());
+            roomChanged(room);
         }
     }
 
     /**
-     * Activate a room (seal it and start the match)
+     * Close a full room: assign teams, start sealing the gate and count down to the fight.
+     * The gate is sealed over several ticks while the countdown runs, so neither lands in a single tick.
      */
     private void activateRoom(BattleRoom room) {
+        room.setState(BattleRoom.RoomState.COUNTDOWN);
+        countdownRooms.add(room);
+        roomChanged(room);
+        room.getTeams().assign(room.getPlayers(), room.getType().getTeamCount());
+        room.setMatchStartedAt(System.currentTimeMillis());
+        room.setGateSealed(false);
+        room.setCountdown(Math.max(0, configManager.getCountdownTime()));
+
+        boolean teamMatch = room.getType().getTeamSize() > 1;
+        for (UUID playerId : room.getPlayersInRoom()) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                player.sendMessage("§6The room is full, the gate is closing!");
+                if (teamMatch) {
+                    player.sendMessage("§7You are on team " + TeamRoster.getTeamName(room.getTeams().getTeam(playerId)) + "§7.");
+                }
+            }
+        }
+
+        long sealStart = System.nanoTime();
+        blockUpdateScheduler.sealGate(room, () -> {
+            plugin.getMetrics().record(Metric.GATE_SEAL, System.nanoTime() - sealStart);
+            onGateSealed(room);
+        });
+
+        if (room.getCountdown() > 0) {
+            countdownTick(room);
+        }
+    }
+
+    /**
+     * Announce one second of the countdown and schedule the next, or start the fight once it has run out
+     */
+    private void countdownTick(BattleRoom room) {
+        if (room.getState() != BattleRoom.RoomState.COUNTDOWN || !isRegistered(room)) return;
+
+        int seconds = room.getCountdown();
+        if (seconds <= 0) {
+            if (room.isGateSealed()) {
+                startFight(room);
+            }
+            // Otherwise the fight starts as soon as the gate has been sealed
+            return;
+        }
+
+        String color = seconds <= 3 ? "§c" : "§e";
+        for (UUID playerId : room.getPlayersInRoom()) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                player.sendTitle(color + "§l" + seconds, "§7Get ready to fight!", 0, 25, 0);
+                player.spigot().sendMessage(ChatMessageType.ACTION_BAR,
+                        TextComponent.fromLegacyText("§7The battle in §f" + room.getName() + " §7starts in " + color + seconds + "s"));
+            }
+        }
+
+        room.setCountdown(seconds - 1);
+        snapshots.roomChanged(room); // Other servers only care about state and player count
+        timers.schedule(room, RoomTimerWheel.TimerType.COUNTDOWN, 20L, () -> countdownTick(room));
+    }
+
+    /**
+     * Start the fight once the countdown has run out, unless it is still waiting for the gate
+     */
+    private void onGateSealed(BattleRoom room) {
+        // The match may already have ended, or the room been removed, while the gate was being sealed
+        if (room.getState() != BattleRoom.RoomState.COUNTDOWN || !isRegistered(room)) {
+            return;
+        }
+
+        room.setGateSealed(true);
+        if (room.getCountdown() <= 0 && timers.getRemainingTicks(room, RoomTimerWheel.TimerType.COUNTDOWN) < 0) {
+            startFight(room);
+        }
+    }
+
+    /**
+     * Unfreeze the players and start the match clock
+     */
+    private void startFight(BattleRoom room) {
         room.setState(BattleRoom.RoomState.ACTIVE);
-        room.closeGate();
+        countdownRooms.remove(room);
+        roomChanged(room);
+        room.setMatchStartedAt(System.currentTimeMillis());
+
+        int timeLimit = configManager.getMatchTimeLimit();
+        if (timeLimit > 0) {
+            timers.schedule(room, RoomTimerWheel.TimerType.TIME_LIMIT, timeLimit * 20L, () -> onTimeLimit(room));
+        }
 
-        // Notify players
         for (UUID playerId : room.getPlayersInRoom()) {
             Player player = Bukkit.getPlayer(playerId);
             if (player != null) {
+                player.sendTitle("§c§lFIGHT!", "", 0, 20, 10);
                 player.sendMessage("§c§lThe battle has begun! The room is now sealed!");
             }
         }
@@ -198,65 +526,96 @@ public class RoomManager {
      */
     public void handlePlayerDeath(Player player) {
         BattleRoom room = getPlayerRoom(player);
-        if (room == null || room.getState() != BattleRoom.RoomState.ACTIVE) {
+        if (room == null || !room.isInMatch()) {
             return;
         }
 
         room.removePlayer(player.getUniqueId());
+        playerRooms.remove(player.getUniqueId());
+        room.getTeams().eliminate(player.getUniqueId());
+        roomChanged(room);
 
         // Check win conditions
-        checkWinCondition(room, player);
+        checkWinCondition(room);
     }
 
     /**
      * Handle a player quitting while in a room
      */
     public void handlePlayerQuit(Player player) {
+        moveCache.invalidate(player.getUniqueId());
+
         BattleRoom room = getPlayerRoom(player);
         if (room == null) {
             return;
         }
 
-        if (room.getState() == BattleRoom.RoomState.ACTIVE) {
-            // Count as death
+        playerRooms.remove(player.getUniqueId());
+        if (room.isInMatch()) {
+            // Count as death, leaving during the countdown included
+            if (room.isSuddenDeath()) {
+                // Effects would otherwise still be active when the player logs back in
+                removeSuddenDeathEffects(player);
+            }
             room.removePlayer(player.getUniqueId());
-            checkWinCondition(room, player);
+            room.getTeams().eliminate(player.getUniqueId());
+            roomChanged(room);
+            checkWinCondition(room);
         } else {
             room.removePlayer(player.getUniqueId());
+            roomChanged(room);
         }
     }
 
     /**
-     * Check if there's a winner
+     * End the match once at most one team has players left
      */
-    private void checkWinCondition(BattleRoom room, Player loser) {
-        int remainingPlayers = room.getPlayerCount();
+    private void checkWinCondition(BattleRoom room) {
+        TeamRoster teams = room.getTeams();
+        if (teams.getTeamsAlive() > 1) {
+            return;
+        }
 
-        if (room.getType() == BattleRoom.RoomType.ONE_V_ONE) {
-            // In 1v1, if one player remains, they win
-            if (remainingPlayers == 1) {
-                UUID winnerId = room.getPlayersInRoom().iterator().next();
-                Player winner = Bukkit.getPlayer(winnerId);
-                announceWinner(room, winner);
-                startCooldown(room);
-            } else if (remainingPlayers == 0) {
-                // Both died somehow
-                announceNoWinner(room);
-                startCooldown(room);
-            }
+        int winningTeam = teams.getWinningTeam();
+        if (winningTeam < 0) {
+            announceNoWinner(room);
+        } else if (room.getType().getTeamSize() == 1) {
+            UUID winnerId = teams.getMembers(winningTeam).get(0);
+            announceWinner(room, Bukkit.getPlayer(winnerId));
         } else {
-            // In 2v2, check team remaining
-            // For simplicity, if only 1 or less remain, end the match
-            if (remainingPlayers <= 1) {
-                if (remainingPlayers == 1) {
-                    UUID winnerId = room.getPlayersInRoom().iterator().next();
-                    Player winner = Bukkit.getPlayer(winnerId);
-                    announceWinner(room, winner);
-                } else {
-                    announceNoWinner(room);
-                }
-                startCooldown(room);
-            }
+            announceWinningTeam(room, winningTeam);
+        }
+        recordMatch(room, winningTeam < 0 ? MatchRecord.EndCause.NO_WINNER : MatchRecord.EndCause.WIN, winningTeam);
+        startCooldown(room);
+    }
+
+    /**
+     * Hand the result of a finished match to the match history and the player ratings
+     */
+    private void recordMatch(BattleRoom room, MatchRecord.EndCause cause, int winningTeam) {
+        TeamRoster teams = room.getTeams();
+        if (!teams.isAssigned()) return;
+
+        int count = teams.getPlayerCount();
+        UUID[] players = new UUID[count];
+        String[] names = new String[count];
+        int[] playerTeams = new int[count];
+        for (int slot = 0; slot < count; slot++) {
+            players[slot] = teams.getPlayer(slot);
+            String name = Bukkit.getOfflinePlayer(players[slot]).getName();
+            names[slot] = name != null ? name : "Unknown";
+            playerTeams[slot] = teams.getTeamOfSlot(slot);
+        }
+
+        MatchRecord record = new MatchRecord(room.getName(), room.getType(), room.getMatchStartedAt(),
+                System.currentTimeMillis(), cause, winningTeam, players, names, playerTeams);
+        MatchHistory history = plugin != null ? plugin.getMatchHistory() : null;
+        if (history != null) {
+            history.record(record);
+        }
+        PlayerRatings ratings = plugin != null ? plugin.getRatings() : null;
+        if (ratings != null) {
+            ratings.update(record);
         }
     }
 
@@ -268,6 +627,79 @@ public class RoomManager {
         Bukkit.broadcastMessage(message);
     }
 
+    private void announceWinningTeam(BattleRoom room, int team) {
+        List<String> names = new ArrayList<>();
+        for (UUID memberId : room.getTeams().getMembers(team)) {
+            String name = Bukkit.getOfflinePlayer(memberId).getName();
+            names.add(name != null ? name : "Unknown");
+        }
+
+        String message = configManager.getMessage("team-wins")
+                .replace("%team%", TeamRoster.getTeamName(team))
+                .replace("%players%", String.join(", ", names))
+                .replace("%room%", room.getName());
+        Bukkit.broadcastMessage(message);
+    }
+
+    /**
+     * Start sudden death once a match reaches its time limit, or end it right away if sudden death is disabled
+     */
+    private void onTimeLimit(BattleRoom room) {
+        int suddenDeath = configManager.getSuddenDeathTime();
+        if (suddenDeath <= 0) {
+            endInDraw(room);
+            return;
+        }
+
+        startSuddenDeath(room, suddenDeath);
+        timers.schedule(room, RoomTimerWheel.TimerType.SUDDEN_DEATH, suddenDeath * 20L, () -> endInDraw(room));
+    }
+
+    /**
+     * Mark everyone still alive once the time limit is reached and wear them down until the match is decided
+     */
+    private void startSuddenDeath(BattleRoom room, int seconds) {
+        room.setSuddenDeath(true);
+        snapshots.roomChanged(room);
+        int duration = seconds * 20;
+        for (UUID playerId : room.getPlayersInRoom()) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                player.addPotionEffect(new PotionEffect(PotionEffectType.GLOWING, duration, 0));
+                player.addPotionEffect(new PotionEffect(PotionEffectType.WITHER, duration, 0));
+                player.sendMessage("§4§lSudden death! §cThe battle ends in a draw in " + seconds + " seconds.");
+            }
+        }
+    }
+
+    /**
+     * End a match that ran out of time without a winner
+     */
+    private void endInDraw(BattleRoom room) {
+        if (room.getState() != BattleRoom.RoomState.ACTIVE) return;
+
+        Bukkit.broadcastMessage("§eThe battle in " + room.getName() + " has ended in a draw, time ran out!");
+        recordMatch(room, MatchRecord.EndCause.TIME_LIMIT, -1);
+        startCooldown(room);
+    }
+
+    private void clearSuddenDeath(BattleRoom room) {
+        if (!room.isSuddenDeath()) return;
+
+        room.setSuddenDeath(false);
+        for (UUID playerId : room.getPlayersInRoom()) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                removeSuddenDeathEffects(player);
+            }
+        }
+    }
+
+    private void removeSuddenDeathEffects(Player player) {
+        player.removePotionEffect(PotionEffectType.GLOWING);
+        player.removePotionEffect(PotionEffectType.WITHER);
+    }
+
     private void announceNoWinner(BattleRoom room) {
         Bukkit.broadcastMessage("§eThe battle in " + room.getName() + " has ended with no winner!");
     }
@@ -277,16 +709,19 @@ public class RoomManager {
      */
     private void startCooldown(BattleRoom room) {
         room.setState(BattleRoom.RoomState.COOLDOWN);
+        countdownRooms.remove(room);
+        timers.cancel(room, RoomTimerWheel.TimerType.COUNTDOWN);
+        timers.cancel(room, RoomTimerWheel.TimerType.TIME_LIMIT);
+        timers.cancel(room, RoomTimerWheel.TimerType.SUDDEN_DEATH);
+        clearSuddenDeath(room);
+        plugin.getQueueManager().returnPlayers(room.getPlayersInRoom());
+        untrackPlayers(room);
         room.clearPlayers();
+        roomChanged(room);
 
         int cooldownTime = configManager.getCooldownTime();
 
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                reopenRoom(room);
-            }
-        }.runTaskLater(plugin, cooldownTime * 20L);
+        timers.schedule(room, RoomTimerWheel.TimerType.COOLDOWN, cooldownTime * 20L, () -> reopenRoom(room));
 
         // Notify about reopening
         String message = configManager.getMessage("room-reopening").replace("%room%", room.getName());
@@ -297,22 +732,123 @@ public class RoomManager {
      * Reopen a room after cooldown
      */
     private void reopenRoom(BattleRoom room) {
-        room.openGate();
-        room.setState(BattleRoom.RoomState.WAITING);
-        room.clearPlayers();
+        // Interior changes are undone first so the gate restore has the final word on gate blocks
+        blockUpdateScheduler.resetArena(room, () -> blockUpdateScheduler.restoreGate(room, () -> {
+            room.setState(BattleRoom.RoomState.WAITING);
+            untrackPlayers(room);
+            room.clearPlayers();
+            room.getTeams().clear();
+            roomChanged(room);
+
+            plugin.getLogger().info("Room " + room.getName() + " has reopened.");
+        }));
+    }
+
+    /**
+     * Check if any room of a type is configured on this server
+     */
+    public boolean hasRoomsOfType(BattleRoom.RoomType type) {
+        for (BattleRoom room : rooms.values()) {
+            if (room.getType() == type) return true;
+        }
+        return false;
+    }
 
-        plugin.getLogger().info("Room " + room.getName() + " has reopened.");
+    /**
+     * Publish a change to a room's state or players to the room snapshot and the other servers of the arena network
+     */
+    private void roomChanged(BattleRoom room) {
+        snapshots.roomChanged(room);
+        ArenaNetwork network = getNetwork();
+        if (network != null) {
+            network.roomChanged(room);
+        }
     }
 
     /**
-     * Check if a block is a protected boundary block
+     * Get the arena network, or null if it is disabled or the manager runs without a plugin, as in the benchmarks
      */
-    public boolean isProtectedBlock(Location location) {
+    private ArenaNetwork getNetwork() {
+        return plugin != null ? plugin.getNetwork() : null;
+    }
+
+    /**
+     * Tell the players of a room that is being unregistered and send those the queue teleported in back
+     */
+    private void sendPlayersAway(BattleRoom room) {
+        if (room.getPlayers().isEmpty()) return;
+
+        String message = room.isInMatch()
+                ? "§cThe room " + room.getName() + " was removed, the battle has been cancelled."
+                : "§cThe room " + room.getName() + " was removed.";
+        for (UUID playerId : room.getPlayersInRoom()) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                player.sendMessage(message);
+            }
+        }
+
+        QueueManager queueManager = plugin != null ? plugin.getQueueManager() : null;
+        if (queueManager != null) {
+            queueManager.returnPlayers(room.getPlayersInRoom());
+        }
+    }
+
+    /**
+     * Drop the player index entries that point at a room
+     */
+    private void untrackPlayers(BattleRoom room) {
+        for (UUID playerId : room.getPlayersInRoom()) {
+            playerRooms.remove(playerId, room);
+        }
+    }
+
+    /**
+     * Verify that the player index agrees with the player sets of all rooms.
+     * Returns a description of every mismatch, or an empty list if they are consistent.
+     */
+    public List<String> verifyPlayerIndex() {
+        List<String> problems = new ArrayList<>();
+        Set<BattleRoom> knownRooms = Collections.newSetFromMap(new IdentityHashMap<>());
+        knownRooms.addAll(rooms.values());
+
         for (BattleRoom room : rooms.values()) {
-            if (room.isOnBoundary(location) || room.isGateBlock(location)) {
-                return true;
+            for (UUID playerId : room.getPlayersInRoom()) {
+                BattleRoom indexed = playerRooms.get(playerId);
+                if (indexed != room) {
+                    problems.add("Player " + playerId + " is in room " + room.getName() + " but indexed to "
+                            + (indexed == null ? "no room" : indexed.getName()));
+                }
             }
         }
-        return false;
+
+        for (Map.Entry<UUID, BattleRoom> entry : playerRooms.entrySet()) {
+            BattleRoom room = entry.getValue();
+            if (!knownRooms.contains(room)) {
+                problems.add("Player " + entry.getKey() + " is indexed to unknown room " + room.getName());
+            } else if (!room.hasPlayer(entry.getKey())) {
+                problems.add("Player " + entry.getKey() + " is indexed to room " + room.getName()
+                        + " but is not in its player set");
+            }
+        }
+
+        return problems;
+    }
+
+    /**
+     * Remember the original state of a block that is about to change inside an active room
+     */
+    public void recordBlockChange(Location location, BlockData original) {
+        BattleRoom room = getRoomAtLocation(location);
+        if (room != null && room.isInMatch()) {
+            room.getChangeJournal().record(location.getBlockX(), location.getBlockY(), location.getBlockZ(), original);
+        }
+    }
+
+    /**
+     * Check if a block is a protected boundary block
+     */
+    public boolean isProtectedBlock(Location location) {
+        return roomIndex.isProtected(location);
     }
 }
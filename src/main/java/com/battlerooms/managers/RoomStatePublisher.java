@@ -0,0 +1,91 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.models.ArenaSnapshot;
+import com.battlerooms.models.BattleRoom;
+import com.battlerooms.models.RoomSnapshot;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes an immutable snapshot of every room for readers on other threads.
+ * Changes are collected on the main thread and published together at the next tick, so a burst of
+ * changes costs one copy; rooms that did not change keep their previous room snapshot.
+ * Readers get the latest snapshot from an atomic reference without locking or scheduling onto the main thread.
+ */
+public class RoomStatePublisher {
+
+    private final BattleRooms plugin;
+    private final AtomicReference<ArenaSnapshot> current;
+    private final Map<String, BattleRoom> changedRooms; // Null for rooms that were removed
+    private boolean publishScheduled;
+
+    public RoomStatePublisher(BattleRooms plugin) {
+        this.plugin = plugin;
+        this.current = new AtomicReference<>(ArenaSnapshot.EMPTY);
+        this.changedRooms = new LinkedHashMap<>();
+    }
+
+    /**
+     * Get the latest published snapshot, from any thread
+     */
+    public ArenaSnapshot get() {
+        return current.get();
+    }
+
+    /**
+     * Include the current state of a room in the next snapshot
+     */
+    public void roomChanged(BattleRoom room) {
+        changedRooms.put(room.getName().toLowerCase(), room);
+        schedulePublish();
+    }
+
+    public void roomRemoved(BattleRoom room) {
+        changedRooms.put(room.getName().toLowerCase(), null);
+        schedulePublish();
+    }
+
+    /**
+     * Publish the pending changes right away, must be called on the main thread
+     */
+    public void publish() {
+        publishScheduled = false;
+        if (changedRooms.isEmpty()) return;
+
+        ArenaSnapshot previous = current.get();
+        Map<String, RoomSnapshot> rooms = new HashMap<>(previous.getRoomCount() + changedRooms.size());
+        for (RoomSnapshot room : previous.getRooms()) {
+            rooms.put(room.getName().toLowerCase(), room);
+        }
+        for (Map.Entry<String, BattleRoom> entry : changedRooms.entrySet()) {
+            if (entry.getValue() == null) {
+                rooms.remove(entry.getKey());
+            } else {
+                rooms.put(entry.getKey(), RoomSnapshot.of(entry.getValue()));
+            }
+        }
+        changedRooms.clear();
+
+        // Only the main thread publishes, so a plain set keeps versions in order
+        current.set(new ArenaSnapshot(previous.getVersion() + 1, System.currentTimeMillis(), rooms));
+    }
+
+    /**
+     * Publish at the next tick, unless the plugin is disabled or absent; then only an explicit publish() takes the snapshot
+     */
+    private void schedulePublish() {
+        if (publishScheduled || plugin == null || !plugin.isEnabled()) return;
+        publishScheduled = true;
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                publish();
+            }
+        }.runTask(plugin);
+    }
+}
@@ -0,0 +1,195 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.models.BattleRoom;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timer wheel that owns every room state timer.
+ * Timers are hashed by due tick into a fixed ring of buckets and a single task advances
+ * one bucket per tick, so scheduling and cancelling are constant time no matter how many rooms are timed.
+ * Each room has at most one timer per type, and all timers of a room can be cancelled at once.
+ */
+public class RoomTimerWheel {
+
+    private static final int WHEEL_SIZE = 512; // Must be a power of two
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /**
+     * The room state transitions that can be timed
+     */
+    public enum TimerType {
+        COUNTDOWN,     // The pre-fight countdown advances by one second
+        TIME_LIMIT,    // Sudden death starts
+        SUDDEN_DEATH,  // The match ends in a draw
+        COOLDOWN       // The room reopens
+    }
+
+    private static class Timer {
+        private final BattleRoom room;
+        private final TimerType type;
+        private final long dueTick;
+        private final Runnable action;
+        private boolean cancelled;
+
+        private Timer(BattleRoom room, TimerType type, long dueTick, Runnable action) {
+            this.room = room;
+            this.type = type;
+            this.dueTick = dueTick;
+            this.action = action;
+        }
+    }
+
+    private final BattleRooms plugin;
+    private final List<Timer>[] buckets;
+    private final Map<BattleRoom, Map<TimerType, Timer>> timersByRoom;
+    private long currentTick;
+    private int liveTimers;
+    private BukkitTask task;
+
+    @SuppressWarnings("unchecked")
+    public RoomTimerWheel(BattleRooms plugin) {
+        this.plugin = plugin;
+        this.buckets = new List[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets[i] = new ArrayList<>(2);
+        }
+        this.timersByRoom = new HashMap<>();
+    }
+
+    /**
+     * Run an action for a room after a number of ticks, replacing its pending timer of the same type
+     */
+    public void schedule(BattleRoom room, TimerType type, long delayTicks, Runnable action) {
+        cancel(room, type);
+
+        Timer timer = new Timer(room, type, currentTick + Math.max(1L, delayTicks), action);
+        buckets[(int) (timer.dueTick & WHEEL_MASK)].add(timer);
+        timersByRoom.computeIfAbsent(room, k -> new EnumMap<>(TimerType.class)).put(type, timer);
+        liveTimers++;
+        startTask();
+    }
+
+    /**
+     * Cancel a room's pending timer of a type, returning false if there was none
+     */
+    public boolean cancel(BattleRoom room, TimerType type) {
+        Map<TimerType, Timer> timers = timersByRoom.get(room);
+        if (timers == null) return false;
+
+        Timer timer = timers.remove(type);
+        if (timer == null) return false;
+
+        if (timers.isEmpty()) {
+            timersByRoom.remove(room);
+        }
+        // The entry stays in its bucket and is dropped when the wheel reaches it
+        timer.cancelled = true;
+        liveTimers--;
+        return true;
+    }
+
+    /**
+     * Cancel every pending timer of a room, e.g. when it is deleted or reloaded
+     */
+    public void cancelAll(BattleRoom room) {
+        Map<TimerType, Timer> timers = timersByRoom.remove(room);
+        if (timers == null) return;
+
+        for (Timer timer : timers.values()) {
+            timer.cancelled = true;
+            liveTimers--;
+        }
+    }
+
+    /**
+     * Get the ticks left until a room's timer of a type fires, or -1 if none is pending
+     */
+    public long getRemainingTicks(BattleRoom room, TimerType type) {
+        Map<TimerType, Timer> timers = timersByRoom.get(room);
+        Timer timer = timers == null ? null : timers.get(type);
+        return timer == null ? -1 : timer.dueTick - currentTick;
+    }
+
+    /**
+     * Get the number of timers that have not fired or been cancelled
+     */
+    public int getPendingTimers() {
+        return liveTimers;
+    }
+
+    public void shutdown() {
+        for (List<Timer> bucket : buckets) {
+            bucket.clear();
+        }
+        timersByRoom.clear();
+        liveTimers = 0;
+        stopTask();
+    }
+
+    private void tick() {
+        currentTick++;
+        List<Timer> bucket = buckets[(int) (currentTick & WHEEL_MASK)];
+
+        List<Timer> due = null;
+        for (int i = bucket.size() - 1; i >= 0; i--) {
+            Timer timer = bucket.get(i);
+            if (timer.cancelled) {
+                removeAt(bucket, i);
+            } else if (timer.dueTick <= currentTick) {
+                removeAt(bucket, i);
+                if (due == null) due = new ArrayList<>(2);
+                due.add(timer);
+            }
+            // Otherwise the timer is due in a later rotation of the wheel
+        }
+
+        if (due != null) {
+            for (Timer timer : due) {
+                // An earlier action in this tick may have cancelled it
+                if (timer.cancelled) continue;
+
+                cancel(timer.room, timer.type);
+                timer.action.run();
+            }
+        }
+
+        if (liveTimers == 0) {
+            shutdown();
+        }
+    }
+
+    /**
+     * Remove a bucket entry in constant time, order within a bucket does not matter
+     */
+    private static void removeAt(List<Timer> bucket, int index) {
+        int last = bucket.size() - 1;
+        bucket.set(index, bucket.get(last));
+        bucket.remove(last);
+    }
+
+    private void startTask() {
+        if (task == null) {
+            task = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    tick();
+                }
+            }.runTaskTimer(plugin, 1L, 1L);
+        }
+    }
+
+    private void stopTask() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
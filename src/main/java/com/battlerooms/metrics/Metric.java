@@ -0,0 +1,27 @@
+package com.battlerooms.metrics;
+
+/**
+ * Timed operations tracked by the metrics registry
+ */
+public enum Metric {
+    PLAYER_MOVE("onPlayerMove"),
+    BLOCK_BREAK("onBlockBreak"),
+    BLOCK_PLACE("onBlockPlace"),
+    PLAYER_COMMAND("onPlayerCommand"),
+    PLAYER_DEATH("onPlayerDeath"),
+    PLAYER_QUIT("onPlayerQuit"),
+    GATE_SEAL("gateSeal"),
+    CONFIG_SERIALIZE("configSerialize"),
+    CONFIG_WRITE("configWrite"),
+    MATCHMAKING_PASS("matchmakingPass");
+
+    private final String displayName;
+
+    Metric(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
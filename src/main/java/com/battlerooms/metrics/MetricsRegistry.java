@@ -0,0 +1,101 @@
+package com.battlerooms.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds a latency histogram and call counter for every tracked operation
+ */
+public class MetricsRegistry {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final LatencyHistogram[] histograms;
+    private long startedAt;
+
+    public MetricsRegistry() {
+        Metric[] metrics = Metric.values();
+        this.histograms = new LatencyHistogram[metrics.length];
+        for (int i = 0; i < metrics.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        this.startedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Record how long one call took. Safe to call from any thread and allocation-free.
+     */
+    public void record(Metric metric, long nanos) {
+        histograms[metric.ordinal()].record(nanos);
+    }
+
+    public LatencyHistogram get(Metric metric) {
+        return histograms[metric.ordinal()];
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        startedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Format one line per metric that has recorded at least one call
+     */
+    public List<String> format() {
+        List<String> lines = new ArrayList<>();
+        for (Metric metric : Metric.values()) {
+            LatencyHistogram histogram = get(metric);
+            if (histogram.getCount() == 0) continue;
+
+            lines.add(String.format("%s: calls=%d mean=%s p50=%s p99=%s max=%s total=%s",
+                    metric.getDisplayName(),
+                    histogram.getCount(),
+                    formatNanos(histogram.getMeanNanos()),
+                    formatNanos(histogram.getQuantileNanos(0.50)),
+                    formatNanos(histogram.getQuantileNanos(0.99)),
+                    formatNanos(histogram.getMaxNanos()),
+                    formatNanos(histogram.getTotalNanos())));
+        }
+        return lines;
+    }
+
+    /**
+     * Get how long metrics have been collected for, in seconds
+     */
+    public long getUptimeSeconds() {
+        return (System.currentTimeMillis() - startedAt) / 1000;
+    }
+
+    /**
+     * Write the current metrics to a timestamped file in the given folder
+     */
+    public File dump(File folder) throws IOException {
+        File file = new File(folder, "stats-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".txt");
+        Files.createDirectories(folder.toPath());
+
+        List<String> lines = new ArrayList<>();
+        lines.add("# BattleRooms metrics over the last " + getUptimeSeconds() + " seconds");
+        lines.addAll(format());
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000_000L) {
+            return String.format("%.2fs", nanos / 1_000_000_000.0);
+        } else if (nanos >= 1_000_000L) {
+            return String.format("%.2fms", nanos / 1_000_000.0);
+        } else if (nanos >= 1_000L) {
+            return String.format("%.1fus", nanos / 1_000.0);
+        }
+        return nanos + "ns";
+    }
+}
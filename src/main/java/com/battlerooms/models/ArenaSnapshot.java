@@ -0,0 +1,90 @@
+package com.battlerooms.models;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable, versioned copy of every registered room.
+ * A new snapshot is published whenever rooms change; readers on any thread see one consistent version.
+ */
+public final class ArenaSnapshot {
+
+    /**
+     * Snapshot published before any rooms are loaded
+     */
+    public static final ArenaSnapshot EMPTY = new ArenaSnapshot(0L, 0L, Collections.emptyMap());
+
+    private final long version;
+    private final long takenAt;
+    private final Map<String, RoomSnapshot> rooms;
+
+    /**
+     * Create a snapshot that takes ownership of the given map, keyed by lowercase room name, which must not be changed afterwards
+     */
+    public ArenaSnapshot(long version, long takenAt, Map<String, RoomSnapshot> rooms) {
+        this.version = version;
+        this.takenAt = takenAt;
+        this.rooms = Collections.unmodifiableMap(rooms);
+    }
+
+    /**
+     * Get the version, which grows by one with every published snapshot
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the time in milliseconds at which the snapshot was taken
+     */
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    public Collection<RoomSnapshot> getRooms() {
+        return rooms.values();
+    }
+
+    public RoomSnapshot getRoom(String name) {
+        return rooms.get(name.toLowerCase());
+    }
+
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    public List<RoomSnapshot> getRoomsOfType(BattleRoom.RoomType type) {
+        List<RoomSnapshot> result = new ArrayList<>();
+        for (RoomSnapshot room : rooms.values()) {
+            if (room.getType() == type) {
+                result.add(room);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the room a player was in, or null if they were in none
+     */
+    public RoomSnapshot findPlayerRoom(UUID playerId) {
+        for (RoomSnapshot room : rooms.values()) {
+            if (room.hasPlayer(playerId)) return room;
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of players in all rooms
+     */
+    public int getPlayerCount() {
+        int count = 0;
+        for (RoomSnapshot room : rooms.values()) {
+            count += room.getPlayerCount();
+        }
+        return count;
+    }
+}
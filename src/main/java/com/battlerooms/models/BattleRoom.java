@@ -1,6 +1,5 @@
 package com.battlerooms.models;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -15,19 +14,32 @@ import java.util.*;
 public class BattleRoom {
 
     public enum RoomType {
-        ONE_V_ONE(2, "1v1"),
-        TWO_V_TWO(4, "2v2");
-
-        private final int requiredPlayers;
+        ONE_V_ONE(2, 1, "1v1"),
+        TWO_V_TWO(2, 2, "2v2"),
+        THREE_V_THREE(2, 3, "3v3"),
+        FOUR_V_FOUR(2, 4, "4v4"),
+        FREE_FOR_ALL(4, 1, "ffa");
+
+        private final int teamCount;
+        private final int teamSize;
         private final String displayName;
 
-        RoomType(int requiredPlayers, String displayName) {
-            this.requiredPlayers = requiredPlayers;
+        RoomType(int teamCount, int teamSize, String displayName) {
+            this.teamCount = teamCount;
+            this.teamSize = teamSize;
             this.displayName = displayName;
         }
 
         public int getRequiredPlayers() {
-            return requiredPlayers;
+            return teamCount * teamSize;
+        }
+
+        public int getTeamCount() {
+            return teamCount;
+        }
+
+        public int getTeamSize() {
+            return teamSize;
         }
 
         public String getDisplayName() {
@@ -35,10 +47,11 @@ public class BattleRoom {
         }
 
         public static RoomType fromString(String type) {
-            if (type.equalsIgnoreCase("1v1") || type.equalsIgnoreCase("one_v_one")) {
-                return ONE_V_ONE;
-            } else if (type.equalsIgnoreCase("2v2") || type.equalsIgnoreCase("two_v_two")) {
-                return TWO_V_TWO;
+            if (type == null) return null;
+            for (RoomType roomType : values()) {
+                if (type.equalsIgnoreCase(roomType.displayName) || type.equalsIgnoreCase(roomType.name())) {
+                    return roomType;
+                }
             }
             return null;
         }
@@ -46,7 +59,8 @@ public class BattleRoom {
 
     public enum RoomState {
         WAITING,   // Room is open, waiting for players
-        ACTIVE,    // Required players reached, room is sealed
+        COUNTDOWN, // Required players reached, gate is sealing and players are frozen until the fight starts
+        ACTIVE,    // Countdown over, room is sealed and the fight is on
         COOLDOWN   // Match ended, waiting to reopen
     }
 
@@ -57,17 +71,29 @@ public class BattleRoom {
     private Location pos2;
     private Location gate1;
     private Location gate2;
+    private Region region;
+    private Region gateRegion;
+    private World world; // Null while the room's world is not loaded
+    private UUID worldId;
     private RoomState state;
-    private final Set<UUID> playersInRoom;
-    private final Map<Location, Material> originalGateBlocks;
+    private final PlayerSet playersInRoom;
+    private BlockSnapshot originalGateBlocks;
+    private final ChangeJournal changeJournal;
+    private final TeamRoster teams;
+    private long matchStartedAt;
+    private boolean suddenDeath;
+    private int countdown;
+    private boolean gateSealed;
 
     public BattleRoom(String name, RoomType type, String worldName) {
         this.name = name;
         this.type = type;
         this.worldName = worldName;
         this.state = RoomState.WAITING;
-        this.playersInRoom = new HashSet<>();
-        this.originalGateBlocks = new HashMap<>();
+        // Entry order is kept so that team slots line up with the spawn slots players were sent to
+        this.playersInRoom = new PlayerSet(type.getRequiredPlayers());
+        this.changeJournal = new ChangeJournal();
+        this.teams = new TeamRoster();
     }
 
     public BattleRoom(String name, RoomType type, String worldName,
@@ -77,6 +103,7 @@ public class BattleRoom {
         this.pos2 = pos2;
         this.gate1 = gate1;
         this.gate2 = gate2;
+        updateRegions();
     }
 
     public String getName() {
@@ -91,8 +118,43 @@ public class BattleRoom {
         return worldName;
     }
 
+    /**
+     * Get the world the room is bound to, or null if that world is not loaded
+     */
     public World getWorld() {
-        return Bukkit.getWorld(worldName);
+        return world;
+    }
+
+    /**
+     * Attach the room to its world once it is loaded.
+     * Positions loaded while the world was missing only hold coordinates until then.
+     */
+    public void bindWorld(World world) {
+        pos1 = withWorld(pos1, world);
+        pos2 = withWorld(pos2, world);
+        gate1 = withWorld(gate1, world);
+        gate2 = withWorld(gate2, world);
+        updateRegions();
+        this.world = world;
+        this.worldId = world.getUID();
+    }
+
+    /**
+     * Detach the room from its world when the world unloads, keeping the coordinates
+     */
+    public void unbindWorld() {
+        pos1 = withWorld(pos1, null);
+        pos2 = withWorld(pos2, null);
+        gate1 = withWorld(gate1, null);
+        gate2 = withWorld(gate2, null);
+        updateRegions();
+    }
+
+    private static Location withWorld(Location location, World world) {
+        if (location == null) return null;
+        Location copy = location.clone();
+        copy.setWorld(world);
+        return copy;
     }
 
     public Location getPos1() {
@@ -101,6 +163,7 @@ public class BattleRoom {
 
     public void setPos1(Location pos1) {
         this.pos1 = pos1;
+        updateRegions();
     }
 
     public Location getPos2() {
@@ -109,6 +172,7 @@ public class BattleRoom {
 
     public void setPos2(Location pos2) {
         this.pos2 = pos2;
+        updateRegions();
     }
 
     public Location getGate1() {
@@ -117,6 +181,7 @@ public class BattleRoom {
 
     public void setGate1(Location gate1) {
         this.gate1 = gate1;
+        updateRegions();
     }
 
     public Location getGate2() {
@@ -125,6 +190,49 @@ public class BattleRoom {
 
     public void setGate2(Location gate2) {
         this.gate2 = gate2;
+        updateRegions();
+    }
+
+    /**
+     * Get the normalized room bounds, or null if the room region is not set
+     */
+    public Region getRegion() {
+        return region;
+    }
+
+    /**
+     * Get the normalized gate bounds, or null if the gate is not set
+     */
+    public Region getGateRegion() {
+        return gateRegion;
+    }
+
+    /**
+     * Get the UID of the world the room positions belong to, or null if unknown
+     */
+    public UUID getWorldId() {
+        return worldId;
+    }
+
+    /**
+     * Recompute the cached bounds after a position changed
+     */
+    private void updateRegions() {
+        region = Region.of(pos1, pos2);
+        gateRegion = Region.of(gate1, gate2);
+        world = null;
+        worldId = null;
+        for (Location location : new Location[]{pos1, pos2, gate1, gate2}) {
+            if (location != null && location.getWorld() != null) {
+                world = location.getWorld();
+                worldId = world.getUID();
+                break;
+            }
+        }
+    }
+
+    private boolean isSameWorld(World world) {
+        return world != null && worldId != null && worldId.equals(world.getUID());
     }
 
     public RoomState getState() {
@@ -135,10 +243,31 @@ public class BattleRoom {
         this.state = state;
     }
 
+    /**
+     * Check if the room holds a match, either counting down or fighting
+     */
+    public boolean isInMatch() {
+        return state == RoomState.COUNTDOWN || state == RoomState.ACTIVE;
+    }
+
+    /**
+     * Get a Set view of the players in the room
+     */
     public Set<UUID> getPlayersInRoom() {
+        return playersInRoom.asSet();
+    }
+
+    /**
+     * Get the players in the room, for allocation-free checks and iteration
+     */
+    public PlayerSet getPlayers() {
         return playersInRoom;
     }
 
+    public boolean hasPlayer(UUID playerId) {
+        return playersInRoom.contains(playerId);
+    }
+
     public void addPlayer(UUID playerId) {
         playersInRoom.add(playerId);
     }
@@ -151,96 +280,128 @@ public class BattleRoom {
         playersInRoom.clear();
     }
 
-    public int getPlayerCount() {
-        return playersInRoom.size();
+    /**
+     * Get the journal of blocks changed inside the room during the current match
+     */
+    public ChangeJournal getChangeJournal() {
+        return changeJournal;
     }
 
-    public boolean isComplete() {
-        return pos1 != null && pos2 != null && gate1 != null && gate2 != null;
+    /**
+     * Get the time the current or last match started, in epoch milliseconds
+     */
+    public long getMatchStartedAt() {
+        return matchStartedAt;
+    }
+
+    public void setMatchStartedAt(long matchStartedAt) {
+        this.matchStartedAt = matchStartedAt;
+    }
+
+    public boolean isSuddenDeath() {
+        return suddenDeath;
+    }
+
+    public void setSuddenDeath(boolean suddenDeath) {
+        this.suddenDeath = suddenDeath;
     }
 
     /**
-     * Check if a location is within the room region
+     * Get the seconds left to announce in the countdown before the fight
      */
-    public boolean isInRoom(Location location) {
-        if (pos1 == null || pos2 == null) return false;
-        if (!location.getWorld().getName().equals(worldName)) return false;
+    public int getCountdown() {
+        return countdown;
+    }
 
-        int minX = Math.min(pos1.getBlockX(), pos2.getBlockX());
-        int maxX = Math.max(pos1.getBlockX(), pos2.getBlockX());
-        int minY = Math.min(pos1.getBlockY(), pos2.getBlockY());
-        int maxY = Math.max(pos1.getBlockY(), pos2.getBlockY());
-        int minZ = Math.min(pos1.getBlockZ(), pos2.getBlockZ());
-        int maxZ = Math.max(pos1.getBlockZ(), pos2.getBlockZ());
+    public void setCountdown(int countdown) {
+        this.countdown = countdown;
+    }
 
-        int x = location.getBlockX();
-        int y = location.getBlockY();
-        int z = location.getBlockZ();
+    public boolean isGateSealed() {
+        return gateSealed;
+    }
 
-        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    public void setGateSealed(boolean gateSealed) {
+        this.gateSealed = gateSealed;
     }
 
     /**
-     * Check if a block is part of the room boundary (wall, floor, or ceiling)
+     * Get the team assignment of the current match
      */
-    public boolean isOnBoundary(Location location) {
-        if (pos1 == null || pos2 == null) return false;
-        if (!location.getWorld().getName().equals(worldName)) return false;
+    public TeamRoster getTeams() {
+        return teams;
+    }
 
-        int minX = Math.min(pos1.getBlockX(), pos2.getBlockX());
-        int maxX = Math.max(pos1.getBlockX(), pos2.getBlockX());
-        int minY = Math.min(pos1.getBlockY(), pos2.getBlockY());
-        int maxY = Math.max(pos1.getBlockY(), pos2.getBlockY());
-        int minZ = Math.min(pos1.getBlockZ(), pos2.getBlockZ());
-        int maxZ = Math.max(pos1.getBlockZ(), pos2.getBlockZ());
+    public int getPlayerCount() {
+        return playersInRoom.size();
+    }
 
-        int x = location.getBlockX();
-        int y = location.getBlockY();
-        int z = location.getBlockZ();
+    public boolean isComplete() {
+        return pos1 != null && pos2 != null && gate1 != null && gate2 != null;
+    }
 
-        // Check if it's on the boundary
-        boolean onXBoundary = (x == minX || x == maxX);
-        boolean onYBoundary = (y == minY || y == maxY);
-        boolean onZBoundary = (z == minZ || z == maxZ);
+    /**
+     * Get a spawn point inside the room for the player in the given slot.
+     * With two teams, even slots spawn on one side of the room and odd slots on the opposite side,
+     * along the longer horizontal axis, facing each other. With more teams, each team gets a corner.
+     */
+    public Location getSpawnPoint(int slot) {
+        World world = getWorld();
+        if (world == null || region == null) return null;
+
+        double centerX = (region.getMinX() + region.getMaxX() + 1) / 2.0;
+        double centerZ = (region.getMinZ() + region.getMaxZ() + 1) / 2.0;
+        double y = region.getMinY() + 1;
+
+        if (type.getTeamCount() > 2) {
+            int corner = slot % type.getTeamCount() % 4;
+            double x = corner % 2 == 0 ? region.getMinX() + 2.5 : region.getMaxX() - 1.5;
+            double z = corner < 2 ? region.getMinZ() + 2.5 : region.getMaxZ() - 1.5;
+            float yaw = (float) Math.toDegrees(Math.atan2(x - centerX, centerZ - z));
+            return new Location(world, x, y, z, yaw, 0F);
+        }
 
-        // Must be within the room region
-        boolean inXRange = x >= minX && x <= maxX;
-        boolean inYRange = y >= minY && y <= maxY;
-        boolean inZRange = z >= minZ && z <= maxZ;
+        boolean alongX = region.getSizeX() >= region.getSizeZ();
+        boolean firstSide = slot % 2 == 0;
+        // Spread team mates sideways (0, +1, -1, +2, ...) so they do not stack on one block
+        int rank = slot / 2;
+        int spread = rank % 2 == 1 ? (rank + 1) / 2 : -(rank / 2);
 
-        if (!inXRange || !inYRange || !inZRange) return false;
+        if (alongX) {
+            double x = firstSide ? region.getMinX() + 2.5 : region.getMaxX() - 1.5;
+            return new Location(world, x, y, centerZ + spread, firstSide ? -90F : 90F, 0F);
+        }
+        double z = firstSide ? region.getMinZ() + 2.5 : region.getMaxZ() - 1.5;
+        return new Location(world, centerX + spread, y, z, firstSide ? 0F : 180F, 0F);
+    }
 
-        // A block is on the boundary if at least one of its coordinates is at the boundary
-        return onXBoundary || onYBoundary || onZBoundary;
+    /**
+     * Check if a location is within the room region
+     */
+    public boolean isInRoom(Location location) {
+        Region region = this.region;
+        return region != null && isSameWorld(location.getWorld())
+                && region.contains(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    /**
+     * Check if a block is part of the room boundary (wall, floor, or ceiling)
+     */
+    public boolean isOnBoundary(Location location) {
+        Region region = this.region;
+        return region != null && isSameWorld(location.getWorld())
+                && region.isOnShell(location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
 
     /**
      * Close the room by placing blue glass at the gate
      */
     public void closeGate() {
-        if (gate1 == null || gate2 == null) return;
-
         World world = getWorld();
         if (world == null) return;
 
-        originalGateBlocks.clear();
-
-        int minX = Math.min(gate1.getBlockX(), gate2.getBlockX());
-        int maxX = Math.max(gate1.getBlockX(), gate2.getBlockX());
-        int minY = Math.min(gate1.getBlockY(), gate2.getBlockY());
-        int maxY = Math.max(gate1.getBlockY(), gate2.getBlockY());
-        int minZ = Math.min(gate1.getBlockZ(), gate2.getBlockZ());
-        int maxZ = Math.max(gate1.getBlockZ(), gate2.getBlockZ());
-
-        for (int x = minX; x <= maxX; x++) {
-            for (int y = minY; y <= maxY; y++) {
-                for (int z = minZ; z <= maxZ; z++) {
-                    Location loc = new Location(world, x, y, z);
-                    Block block = world.getBlockAt(loc);
-                    originalGateBlocks.put(loc, block.getType());
-                    block.setType(Material.BLUE_STAINED_GLASS);
-                }
-            }
+        for (int i = 0; i < getGateBlockCount(); i++) {
+            sealGateBlock(world, i);
         }
     }
 
@@ -251,30 +412,61 @@ public class BattleRoom {
         World world = getWorld();
         if (world == null) return;
 
-        for (Map.Entry<Location, Material> entry : originalGateBlocks.entrySet()) {
-            world.getBlockAt(entry.getKey()).setType(entry.getValue());
+        for (int i = 0; i < getGateBlockCount(); i++) {
+            restoreGateBlock(world, i);
         }
-        originalGateBlocks.clear();
+        clearGateSnapshot();
     }
 
     /**
-     * Check if a location is part of the gate
+     * Get the number of blocks in the gate
      */
-    public boolean isGateBlock(Location location) {
-        if (gate1 == null || gate2 == null) return false;
-        if (!location.getWorld().getName().equals(worldName)) return false;
+    public int getGateBlockCount() {
+        return gateRegion == null ? 0 : gateRegion.getVolume();
+    }
 
-        int minX = Math.min(gate1.getBlockX(), gate2.getBlockX());
-        int maxX = Math.max(gate1.getBlockX(), gate2.getBlockX());
-        int minY = Math.min(gate1.getBlockY(), gate2.getBlockY());
-        int maxY = Math.max(gate1.getBlockY(), gate2.getBlockY());
-        int minZ = Math.min(gate1.getBlockZ(), gate2.getBlockZ());
-        int maxZ = Math.max(gate1.getBlockZ(), gate2.getBlockZ());
+    /**
+     * Replace a single gate block with blue glass, remembering the original block.
+     * Sealing starts over at index 0, which discards the snapshot of the previous match.
+     * Physics updates are skipped so that sealing does not cascade into neighbours.
+     */
+    public void sealGateBlock(World world, int index) {
+        if (index == 0) {
+            // Allocated once per room and reused across matches
+            if (originalGateBlocks == null) {
+                originalGateBlocks = new BlockSnapshot(getGateBlockCount());
+            }
+            originalGateBlocks.clear();
+        }
 
-        int x = location.getBlockX();
-        int y = location.getBlockY();
-        int z = location.getBlockZ();
+        Block block = world.getBlockAt(gateRegion.getX(index), gateRegion.getY(index), gateRegion.getZ(index));
+        originalGateBlocks.add(block);
+        block.setType(Material.BLUE_STAINED_GLASS, false);
+    }
+
+    /**
+     * Restore a single gate block to the exact block data it had before the gate was sealed
+     */
+    public void restoreGateBlock(World world, int index) {
+        if (originalGateBlocks == null || index >= originalGateBlocks.size()) return;
+        originalGateBlocks.restore(world, index);
+    }
+
+    /**
+     * Forget the recorded gate blocks once they have been restored
+     */
+    public void clearGateSnapshot() {
+        if (originalGateBlocks != null) {
+            originalGateBlocks.clear();
+        }
+    }
 
-        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    /**
+     * Check if a location is part of the gate
+     */
+    public boolean isGateBlock(Location location) {
+        Region gateRegion = this.gateRegion;
+        return gateRegion != null && isSameWorld(location.getWorld())
+                && gateRegion.contains(location.getBlockX(), location.getBlockY(), location.getBlockZ());
     }
 }
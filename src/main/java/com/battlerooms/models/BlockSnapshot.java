@@ -0,0 +1,129 @@
+package com.battlerooms.models;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, reusable record of block states.
+ * Positions are packed into a single long each and block data is deduplicated
+ * through a palette, so a snapshot of a wall of stone holds one BlockData instance.
+ */
+public class BlockSnapshot {
+
+    private long[] positions;
+    private int[] paletteIndexes;
+    private final List<BlockData> palette;
+    private final Map<BlockData, Integer> paletteLookup;
+    private int size;
+
+    public BlockSnapshot(int initialCapacity) {
+        this.positions = new long[Math.max(1, initialCapacity)];
+        this.paletteIndexes = new int[positions.length];
+        this.palette = new ArrayList<>();
+        this.paletteLookup = new HashMap<>();
+    }
+
+    /**
+     * Forget all recorded blocks, keeping the allocated arrays for reuse
+     */
+    public void clear() {
+        size = 0;
+        palette.clear();
+        paletteLookup.clear();
+    }
+
+    /**
+     * Record the current state of a block
+     */
+    public void add(Block block) {
+        add(block.getX(), block.getY(), block.getZ(), block.getBlockData());
+    }
+
+    /**
+     * Record a block state at a position
+     */
+    public void add(int x, int y, int z, BlockData data) {
+        if (size == positions.length) {
+            int capacity = positions.length * 2;
+            positions = Arrays.copyOf(positions, capacity);
+            paletteIndexes = Arrays.copyOf(paletteIndexes, capacity);
+        }
+
+        Integer paletteIndex = paletteLookup.get(data);
+        if (paletteIndex == null) {
+            paletteIndex = palette.size();
+            palette.add(data);
+            paletteLookup.put(data, paletteIndex);
+        }
+
+        positions[size] = pack(x, y, z);
+        paletteIndexes[size] = paletteIndex;
+        size++;
+    }
+
+    /**
+     * Write a recorded block back into the world without physics updates
+     */
+    public void restore(World world, int index) {
+        restore(world, index, 0, 0, 0);
+    }
+
+    /**
+     * Write a recorded block into the world shifted by an offset, without physics updates
+     */
+    public void restore(World world, int index, int offsetX, int offsetY, int offsetZ) {
+        long position = positions[index];
+        world.getBlockAt(unpackX(position) + offsetX, unpackY(position) + offsetY, unpackZ(position) + offsetZ)
+                .setBlockData(palette.get(paletteIndexes[index]), false);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getPaletteSize() {
+        return palette.size();
+    }
+
+    public int getX(int index) {
+        return unpackX(positions[index]);
+    }
+
+    public int getY(int index) {
+        return unpackY(positions[index]);
+    }
+
+    public int getZ(int index) {
+        return unpackZ(positions[index]);
+    }
+
+    public BlockData getData(int index) {
+        return palette.get(paletteIndexes[index]);
+    }
+
+    /**
+     * Pack a block position into 26 bits of X, 26 bits of Z and 12 bits of Y
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    public static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    public static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+}
@@ -0,0 +1,44 @@
+package com.battlerooms.models;
+
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+
+/**
+ * Records the first original state of every block changed inside a room during a match,
+ * so that resetting the room only touches blocks that were actually modified
+ */
+public class ChangeJournal {
+
+    private final BlockSnapshot originals;
+    private final LongHashSet recorded;
+
+    public ChangeJournal() {
+        this.originals = new BlockSnapshot(64);
+        this.recorded = new LongHashSet(64);
+    }
+
+    /**
+     * Remember the state of a block before it is changed. Later changes to the same block are ignored.
+     */
+    public void record(int x, int y, int z, BlockData original) {
+        if (recorded.add(BlockSnapshot.pack(x, y, z))) {
+            originals.add(x, y, z, original);
+        }
+    }
+
+    public int size() {
+        return originals.size();
+    }
+
+    /**
+     * Put one recorded block back to its original state
+     */
+    public void restore(World world, int index) {
+        originals.restore(world, index);
+    }
+
+    public void clear() {
+        originals.clear();
+        recorded.clear();
+    }
+}
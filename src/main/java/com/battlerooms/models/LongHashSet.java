@@ -0,0 +1,79 @@
+package com.battlerooms.models;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressed set of primitive longs, used to remember packed block positions without boxing
+ */
+class LongHashSet {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] slots;
+    private int size;
+    private boolean containsEmptyValue;
+
+    LongHashSet(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        this.slots = new long[capacity];
+        Arrays.fill(slots, EMPTY);
+    }
+
+    /**
+     * Add a value, returning false if it was already present
+     */
+    boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmptyValue) return false;
+            containsEmptyValue = true;
+            size++;
+            return true;
+        }
+
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+        }
+
+        int mask = slots.length - 1;
+        int index = mix(value) & mask;
+        while (slots[index] != EMPTY) {
+            if (slots[index] == value) return false;
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        size++;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        if (size == 0) return;
+        Arrays.fill(slots, EMPTY);
+        size = 0;
+        containsEmptyValue = false;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        Arrays.fill(slots, EMPTY);
+
+        int mask = slots.length - 1;
+        for (long value : old) {
+            if (value == EMPTY) continue;
+            int index = mix(value) & mask;
+            while (slots[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            slots[index] = value;
+        }
+    }
+
+    private static int mix(long value) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,224 @@
+package com.battlerooms.models;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Small set of player UUIDs stored as pairs of longs, sized for the occupants of one room.
+ * Members are kept densely in insertion order and found through an open-addressed table of positions,
+ * so membership checks hash once and iteration by index allocates nothing.
+ */
+public class PlayerSet {
+
+    private long[] mostBits;
+    private long[] leastBits;
+    private byte[] table; // Position + 1 of the member hashed to each cell, 0 for an empty cell
+    private int size;
+    private final Set<UUID> view;
+
+    public PlayerSet(int expected) {
+        int capacity = Math.max(2, expected);
+        this.mostBits = new long[capacity];
+        this.leastBits = new long[capacity];
+        this.table = new byte[tableSize(capacity)];
+        this.view = new View();
+    }
+
+    /**
+     * Add a player, returning false if they were already present
+     */
+    public boolean add(UUID playerId) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        if (find(most, least) >= 0) return false;
+
+        if (size == mostBits.length) {
+            grow();
+        }
+        mostBits[size] = most;
+        leastBits[size] = least;
+        size++;
+        insert(size - 1);
+        return true;
+    }
+
+    /**
+     * Remove a player, returning false if they were not present
+     */
+    public boolean remove(UUID playerId) {
+        int position = find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits());
+        if (position < 0) return false;
+
+        removeAt(position);
+        return true;
+    }
+
+    public boolean contains(UUID playerId) {
+        return find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits()) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(table, (byte) 0);
+        size = 0;
+    }
+
+    /**
+     * Get the high bits of the UUID of the member at a position, positions run from 0 to size() - 1
+     */
+    public long getMostBits(int position) {
+        return mostBits[position];
+    }
+
+    /**
+     * Get the low bits of the UUID of the member at a position
+     */
+    public long getLeastBits(int position) {
+        return leastBits[position];
+    }
+
+    /**
+     * Get the UUID of the member at a position
+     */
+    public UUID get(int position) {
+        return new UUID(mostBits[position], leastBits[position]);
+    }
+
+    /**
+     * Get a live Set view, for callers that work with UUID collections
+     */
+    public Set<UUID> asSet() {
+        return view;
+    }
+
+    private int find(long most, long least) {
+        int mask = table.length - 1;
+        int cell = mix(most, least) & mask;
+        while (table[cell] != 0) {
+            int position = table[cell] - 1;
+            if (mostBits[position] == most && leastBits[position] == least) {
+                return position;
+            }
+            cell = (cell + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(int position) {
+        int mask = table.length - 1;
+        int cell = mix(mostBits[position], leastBits[position]) & mask;
+        while (table[cell] != 0) {
+            cell = (cell + 1) & mask;
+        }
+        table[cell] = (byte) (position + 1);
+    }
+
+    /**
+     * Remove a member while keeping the others in insertion order.
+     * Rooms hold a handful of players, so shifting and rehashing is cheaper than tombstones.
+     */
+    private void removeAt(int position) {
+        int moved = size - position - 1;
+        System.arraycopy(mostBits, position + 1, mostBits, position, moved);
+        System.arraycopy(leastBits, position + 1, leastBits, position, moved);
+        size--;
+        rehash();
+    }
+
+    private void grow() {
+        int capacity = mostBits.length * 2;
+        if (capacity >= Byte.MAX_VALUE) {
+            throw new IllegalStateException("A room holds at most " + mostBits.length + " players");
+        }
+        mostBits = Arrays.copyOf(mostBits, capacity);
+        leastBits = Arrays.copyOf(leastBits, capacity);
+        table = new byte[tableSize(capacity)];
+        rehash();
+    }
+
+    private void rehash() {
+        Arrays.fill(table, (byte) 0);
+        for (int position = 0; position < size; position++) {
+            insert(position);
+        }
+    }
+
+    /**
+     * Keep the table at most half full
+     */
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int mix(long most, long least) {
+        long hash = (most ^ least) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private class View extends AbstractSet<UUID> {
+        @Override
+        public Iterator<UUID> iterator() {
+            return new Iterator<>() {
+                private int next;
+                private int last = -1;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public UUID next() {
+                    if (next >= size) throw new NoSuchElementException();
+                    last = next;
+                    return get(next++);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) throw new IllegalStateException();
+                    removeAt(last);
+                    next = last;
+                    last = -1;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof UUID && PlayerSet.this.contains((UUID) o);
+        }
+
+        @Override
+        public boolean add(UUID playerId) {
+            return PlayerSet.this.add(playerId);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof UUID && PlayerSet.this.remove((UUID) o);
+        }
+
+        @Override
+        public void clear() {
+            PlayerSet.this.clear();
+        }
+    }
+}
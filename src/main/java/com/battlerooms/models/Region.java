@@ -0,0 +1,126 @@
+package com.battlerooms.models;
+
+import org.bukkit.Location;
+
+/**
+ * Immutable, normalized block cuboid computed once from two corner positions
+ */
+public final class Region {
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    public Region(int x1, int y1, int z1, int x2, int y2, int z2) {
+        this.minX = Math.min(x1, x2);
+        this.minY = Math.min(y1, y2);
+        this.minZ = Math.min(z1, z2);
+        this.maxX = Math.max(x1, x2);
+        this.maxY = Math.max(y1, y2);
+        this.maxZ = Math.max(z1, z2);
+    }
+
+    /**
+     * Create a region from two corners, or null if either corner is missing
+     */
+    public static Region of(Location corner1, Location corner2) {
+        if (corner1 == null || corner2 == null) return null;
+        return new Region(corner1.getBlockX(), corner1.getBlockY(), corner1.getBlockZ(),
+                corner2.getBlockX(), corner2.getBlockY(), corner2.getBlockZ());
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+
+    public int getSizeX() {
+        return maxX - minX + 1;
+    }
+
+    public int getSizeY() {
+        return maxY - minY + 1;
+    }
+
+    public int getSizeZ() {
+        return maxZ - minZ + 1;
+    }
+
+    public int getVolume() {
+        return getSizeX() * getSizeY() * getSizeZ();
+    }
+
+    /**
+     * Get the X coordinate of the block at a linear index in x, y, z iteration order
+     */
+    public int getX(int index) {
+        return minX + index / (getSizeY() * getSizeZ());
+    }
+
+    /**
+     * Get the Y coordinate of the block at a linear index in x, y, z iteration order
+     */
+    public int getY(int index) {
+        return minY + (index / getSizeZ()) % getSizeY();
+    }
+
+    /**
+     * Get the Z coordinate of the block at a linear index in x, y, z iteration order
+     */
+    public int getZ(int index) {
+        return minZ + index % getSizeZ();
+    }
+
+    /**
+     * Check if a block coordinate is inside the region
+     */
+    public boolean contains(int x, int y, int z) {
+        // Every difference is non-negative exactly when the point is inside,
+        // so a single sign check on the OR replaces six comparisons
+        return ((x - minX) | (maxX - x) | (y - minY) | (maxY - y) | (z - minZ) | (maxZ - z)) >= 0;
+    }
+
+    /**
+     * Check if a block coordinate lies on the outer shell (wall, floor or ceiling) of the region
+     */
+    public boolean isOnShell(int x, int y, int z) {
+        return contains(x, y, z)
+                && (x == minX || x == maxX || y == minY || y == maxY || z == minZ || z == maxZ);
+    }
+
+    /**
+     * Check if this region overlaps the given block bounds
+     */
+    public boolean intersects(int otherMinX, int otherMinY, int otherMinZ, int otherMaxX, int otherMaxY, int otherMaxZ) {
+        return minX <= otherMaxX && maxX >= otherMinX
+                && minY <= otherMaxY && maxY >= otherMinY
+                && minZ <= otherMaxZ && maxZ >= otherMinZ;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + minX + ", " + minY + ", " + minZ + ") -> (" + maxX + ", " + maxY + ", " + maxZ + ")";
+    }
+}
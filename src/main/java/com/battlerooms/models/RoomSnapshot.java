@@ -0,0 +1,110 @@
+package com.battlerooms.models;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable copy of one room's state, safe to read from any thread
+ */
+public final class RoomSnapshot {
+
+    private final String name;
+    private final BattleRoom.RoomType type;
+    private final String worldName;
+    private final BattleRoom.RoomState state;
+    private final Region region;
+    private final Region gateRegion;
+    private final List<UUID> players;
+    private final long matchStartedAt;
+    private final int countdown;
+    private final boolean suddenDeath;
+
+    private RoomSnapshot(BattleRoom room) {
+        this.name = room.getName();
+        this.type = room.getType();
+        this.worldName = room.getWorldName();
+        this.state = room.getState();
+        this.region = room.getRegion();
+        this.gateRegion = room.getGateRegion();
+        this.matchStartedAt = room.getMatchStartedAt();
+        this.countdown = room.getCountdown();
+        this.suddenDeath = room.isSuddenDeath();
+
+        PlayerSet set = room.getPlayers();
+        UUID[] copy = new UUID[set.size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = set.get(i);
+        }
+        this.players = Collections.unmodifiableList(Arrays.asList(copy));
+    }
+
+    /**
+     * Copy the current state of a room, must be called on the main thread
+     */
+    public static RoomSnapshot of(BattleRoom room) {
+        return new RoomSnapshot(room);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BattleRoom.RoomType getType() {
+        return type;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public BattleRoom.RoomState getState() {
+        return state;
+    }
+
+    /**
+     * Get the bounds of the room, or null if they were never set
+     */
+    public Region getRegion() {
+        return region;
+    }
+
+    public Region getGateRegion() {
+        return gateRegion;
+    }
+
+    /**
+     * Get the players in the room when the snapshot was taken
+     */
+    public List<UUID> getPlayers() {
+        return players;
+    }
+
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    public boolean hasPlayer(UUID playerId) {
+        return players.contains(playerId);
+    }
+
+    public boolean isInMatch() {
+        return state == BattleRoom.RoomState.COUNTDOWN || state == BattleRoom.RoomState.ACTIVE;
+    }
+
+    /**
+     * Get the time the current or last match started, in epoch milliseconds
+     */
+    public long getMatchStartedAt() {
+        return matchStartedAt;
+    }
+
+    public int getCountdown() {
+        return countdown;
+    }
+
+    public boolean isSuddenDeath() {
+        return suddenDeath;
+    }
+}
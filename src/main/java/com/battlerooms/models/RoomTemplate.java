@@ -0,0 +1,108 @@
+package com.battlerooms.models;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * Block copy of a saved room that can be stamped into other places.
+ * Blocks are stored relative to the minimum corner of the box spanning both the room and its gate,
+ * including air so that a stamp fully overwrites whatever was there before.
+ */
+public class RoomTemplate {
+
+    private final BattleRoom source;
+    private final Region bounds;
+    private final BlockSnapshot blocks;
+    private boolean discarded;
+
+    public RoomTemplate(BattleRoom source) {
+        this.source = source;
+        Region region = source.getRegion();
+        Region gate = source.getGateRegion();
+        this.bounds = new Region(
+                Math.min(region.getMinX(), gate.getMinX()),
+                Math.min(region.getMinY(), gate.getMinY()),
+                Math.min(region.getMinZ(), gate.getMinZ()),
+                Math.max(region.getMaxX(), gate.getMaxX()),
+                Math.max(region.getMaxY(), gate.getMaxY()),
+                Math.max(region.getMaxZ(), gate.getMaxZ()));
+        this.blocks = new BlockSnapshot(bounds.getVolume());
+    }
+
+    public BattleRoom getSource() {
+        return source;
+    }
+
+    public BattleRoom.RoomType getType() {
+        return source.getType();
+    }
+
+    /**
+     * Get the bounds of the template in the source world
+     */
+    public Region getBounds() {
+        return bounds;
+    }
+
+    public int getBlockCount() {
+        return bounds.getVolume();
+    }
+
+    /**
+     * Check if every block has been captured
+     */
+    public boolean isCaptured() {
+        return blocks.size() == bounds.getVolume();
+    }
+
+    /**
+     * Mark the copy as unusable, e.g. because the source room changed while it was being captured
+     */
+    public void discard() {
+        discarded = true;
+    }
+
+    public boolean isDiscarded() {
+        return discarded;
+    }
+
+    /**
+     * Copy the block at a linear index of the bounds from the source world
+     */
+    public void captureBlock(World sourceWorld, int index) {
+        if (index == 0) {
+            blocks.clear();
+        }
+        int x = bounds.getX(index);
+        int y = bounds.getY(index);
+        int z = bounds.getZ(index);
+        Block block = sourceWorld.getBlockAt(x, y, z);
+        blocks.add(x - bounds.getMinX(), y - bounds.getMinY(), z - bounds.getMinZ(), block.getBlockData());
+    }
+
+    /**
+     * Paste a captured block with the template's minimum corner placed at the given origin
+     */
+    public void stampBlock(World world, int index, int originX, int originY, int originZ) {
+        blocks.restore(world, index, originX, originY, originZ);
+    }
+
+    /**
+     * Create a room whose positions are shifted so that the template's minimum corner is at the origin
+     */
+    public BattleRoom createInstance(String name, World world, int originX, int originY, int originZ) {
+        int dx = originX - bounds.getMinX();
+        int dy = originY - bounds.getMinY();
+        int dz = originZ - bounds.getMinZ();
+        return new BattleRoom(name, source.getType(), world.getName(),
+                shift(source.getPos1(), world, dx, dy, dz),
+                shift(source.getPos2(), world, dx, dy, dz),
+                shift(source.getGate1(), world, dx, dy, dz),
+                shift(source.getGate2(), world, dx, dy, dz));
+    }
+
+    private static Location shift(Location location, World world, int dx, int dy, int dz) {
+        return new Location(world, location.getBlockX() + dx, location.getBlockY() + dy, location.getBlockZ() + dz);
+    }
+}
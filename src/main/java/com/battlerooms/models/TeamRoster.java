@@ -0,0 +1,162 @@
+package com.battlerooms.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Team assignment and survivors of a running match.
+ * Players are kept in flat slot arrays, slot i playing for team i % teamCount,
+ * with the survivors of the match tracked in a bit mask.
+ */
+public class TeamRoster {
+
+    private static final String[] TEAM_NAMES = {"§cRed", "§9Blue", "§aGreen", "§eYellow", "§dPink", "§bAqua", "§6Gold", "§7Gray"};
+
+    private long[] mostBits;
+    private long[] leastBits;
+    private int[] aliveByTeam;
+    private long aliveMask;
+    private int slots;
+    private int teamCount;
+    private int teamsAlive;
+
+    public TeamRoster() {
+        this.mostBits = new long[0];
+        this.leastBits = new long[0];
+        this.aliveByTeam = new int[0];
+    }
+
+    /**
+     * Split players into teams in the order they are given, which matches their spawn slots
+     */
+    public void assign(PlayerSet players, int teamCount) {
+        int count = players.size();
+        if (count > Long.SIZE) {
+            throw new IllegalArgumentException("A match supports at most " + Long.SIZE + " players");
+        }
+        if (mostBits.length < count) {
+            mostBits = new long[count];
+            leastBits = new long[count];
+        }
+        if (aliveByTeam.length < teamCount) {
+            aliveByTeam = new int[teamCount];
+        }
+
+        this.slots = count;
+        this.teamCount = teamCount;
+        Arrays.fill(aliveByTeam, 0);
+
+        for (int slot = 0; slot < count; slot++) {
+            mostBits[slot] = players.getMostBits(slot);
+            leastBits[slot] = players.getLeastBits(slot);
+            aliveByTeam[slot % teamCount]++;
+        }
+        aliveMask = count == Long.SIZE ? -1L : (1L << count) - 1;
+
+        teamsAlive = 0;
+        for (int team = 0; team < teamCount; team++) {
+            if (aliveByTeam[team] > 0) teamsAlive++;
+        }
+    }
+
+    /**
+     * Forget the teams of the previous match
+     */
+    public void clear() {
+        slots = 0;
+        teamCount = 0;
+        teamsAlive = 0;
+        aliveMask = 0;
+    }
+
+    public boolean isAssigned() {
+        return slots > 0;
+    }
+
+    /**
+     * Mark a player as eliminated, returning false if they were not alive in this match
+     */
+    public boolean eliminate(UUID playerId) {
+        int slot = getSlot(playerId);
+        if (slot < 0 || (aliveMask & (1L << slot)) == 0) return false;
+
+        aliveMask &= ~(1L << slot);
+        int team = slot % teamCount;
+        if (--aliveByTeam[team] == 0) {
+            teamsAlive--;
+        }
+        return true;
+    }
+
+    /**
+     * Get the team of a player, or -1 if they are not part of this match
+     */
+    public int getTeam(UUID playerId) {
+        int slot = getSlot(playerId);
+        return slot < 0 ? -1 : slot % teamCount;
+    }
+
+    /**
+     * Get the number of players the teams were assigned from
+     */
+    public int getPlayerCount() {
+        return slots;
+    }
+
+    /**
+     * Get the player in a slot, slots run from 0 to getPlayerCount() - 1
+     */
+    public UUID getPlayer(int slot) {
+        return new UUID(mostBits[slot], leastBits[slot]);
+    }
+
+    public int getTeamOfSlot(int slot) {
+        return slot % teamCount;
+    }
+
+    public int getTeamsAlive() {
+        return teamsAlive;
+    }
+
+    /**
+     * Get the only team with players left, or -1 if none or several teams are still standing
+     */
+    public int getWinningTeam() {
+        if (teamsAlive != 1) return -1;
+        for (int team = 0; team < teamCount; team++) {
+            if (aliveByTeam[team] > 0) return team;
+        }
+        return -1;
+    }
+
+    /**
+     * Get every player of a team, including eliminated ones
+     */
+    public List<UUID> getMembers(int team) {
+        List<UUID> members = new ArrayList<>();
+        for (int slot = team; slot < slots; slot += teamCount) {
+            members.add(new UUID(mostBits[slot], leastBits[slot]));
+        }
+        return members;
+    }
+
+    /**
+     * Get the display name of a team, including its color
+     */
+    public static String getTeamName(int team) {
+        return TEAM_NAMES[team % TEAM_NAMES.length];
+    }
+
+    private int getSlot(UUID playerId) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        for (int slot = 0; slot < slots; slot++) {
+            if (mostBits[slot] == most && leastBits[slot] == least) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,264 @@
+package com.battlerooms.network;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.managers.ConfigManager;
+import com.battlerooms.models.BattleRoom;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Shares room state between the servers of a proxy network and routes queueing players to servers with space.
+ * Local room changes are coalesced and published a few times per second, with a full announcement on every heartbeat;
+ * remote rooms that miss three heartbeats are forgotten. Received messages are applied on the main thread.
+ */
+public class ArenaNetwork {
+
+    private static final long FLUSH_INTERVAL_TICKS = 5L;
+    private static final long ARRIVAL_TIMEOUT_MILLIS = 60_000L;
+    private static final String PROXY_CHANNEL = "BungeeCord";
+
+    private final BattleRooms plugin;
+    private final String serverId;
+    private final MessageBus bus;
+    private final long heartbeatMillis;
+    private final Map<String, BattleRoom> changedRooms; // Null for rooms that were removed
+    private final Map<String, Map<String, RemoteRoom>> remoteRooms;
+    private final Map<UUID, Arrival> arrivals; // Players other servers are sending here
+    private BukkitTask task;
+    private long lastHeartbeat;
+
+    public ArenaNetwork(BattleRooms plugin) {
+        this.plugin = plugin;
+        ConfigManager config = plugin.getConfigManager();
+        this.serverId = config.getNetworkServerId();
+        this.heartbeatMillis = Math.max(1, config.getNetworkHeartbeatInterval()) * 1000L;
+        this.changedRooms = new LinkedHashMap<>();
+        this.remoteRooms = new HashMap<>();
+        this.arrivals = new HashMap<>();
+
+        if (config.getNetworkTransport().equalsIgnoreCase("loopback")) {
+            this.bus = new LoopbackBus(config.getNetworkChannel());
+        } else {
+            File socket = new File(config.getNetworkSocketPath());
+            if (!socket.isAbsolute()) {
+                socket = new File(plugin.getDataFolder(), config.getNetworkSocketPath());
+            }
+            this.bus = new SocketBus(socket.toPath(), plugin.getLogger());
+        }
+    }
+
+    /**
+     * Join the network and start publishing the local rooms
+     */
+    public void start() {
+        try {
+            bus.start(this::receive);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not join the arena network", e);
+            return;
+        }
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, PROXY_CHANNEL);
+
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }.runTaskTimer(plugin, FLUSH_INTERVAL_TICKS, FLUSH_INTERVAL_TICKS);
+    }
+
+    /**
+     * Tell the other servers that the local rooms are gone and leave the network
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+            for (BattleRoom room : plugin.getRoomManager().getRooms().values()) {
+                bus.publish(NetworkMessage.roomRemoved(serverId, room.getName()));
+            }
+        }
+        bus.close();
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin);
+    }
+
+    public String getServerId() {
+        return serverId;
+    }
+
+    public String describeTransport() {
+        return bus.describe();
+    }
+
+    /**
+     * Publish the state of a local room with the next batch of changes
+     */
+    public void roomChanged(BattleRoom room) {
+        changedRooms.put(room.getName().toLowerCase(), room);
+    }
+
+    public void roomRemoved(BattleRoom room) {
+        changedRooms.put(room.getName().toLowerCase(), null);
+    }
+
+    /**
+     * Get every room known on the other servers
+     */
+    public List<RemoteRoom> getRemoteRooms() {
+        List<RemoteRoom> all = new ArrayList<>();
+        for (Map<String, RemoteRoom> rooms : remoteRooms.values()) {
+            all.addAll(rooms.values());
+        }
+        return all;
+    }
+
+    /**
+     * Send a player to the server whose open room of a type is closest to full.
+     * Returns false if no other server has space for the type.
+     */
+    public boolean sendToRemoteRoom(Player player, BattleRoom.RoomType type) {
+        RemoteRoom best = null;
+        for (Map<String, RemoteRoom> rooms : remoteRooms.values()) {
+            for (RemoteRoom room : rooms.values()) {
+                if (room.getType() == type && room.hasSpace()
+                        && (best == null || room.getPlayers() > best.getPlayers())) {
+                    best = room;
+                }
+            }
+        }
+        if (best == null) return false;
+
+        bus.publish(NetworkMessage.queueRequest(serverId, best.getServer(), player.getUniqueId(), type));
+        best.reservePlace();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Connect");
+            out.writeUTF(best.getServer());
+        } catch (IOException e) {
+            // Writing to a byte array cannot fail
+            throw new IllegalStateException(e);
+        }
+        player.sendMessage("§aSending you to §f" + best.getServer() + " §afor a " + type.getDisplayName() + " match...");
+        player.sendPluginMessage(plugin, PROXY_CHANNEL, bytes.toByteArray());
+        return true;
+    }
+
+    /**
+     * Queue a player who was sent here by another server
+     */
+    public void handleJoin(Player player) {
+        Arrival arrival = arrivals.remove(player.getUniqueId());
+        if (arrival != null && System.currentTimeMillis() - arrival.sentAt <= ARRIVAL_TIMEOUT_MILLIS) {
+            plugin.getQueueManager().joinQueue(player, arrival.type);
+        }
+    }
+
+    /**
+     * Called on a bus thread, applies the message on the main thread
+     */
+    private void receive(NetworkMessage message) {
+        if (message.getServer().equals(serverId) || !plugin.isEnabled()) return;
+
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                apply(message);
+            }
+        }.runTask(plugin);
+    }
+
+    private void apply(NetworkMessage message) {
+        long now = System.currentTimeMillis();
+        switch (message.getKind()) {
+            case ROOM_STATE -> remoteRooms.computeIfAbsent(message.getServer(), k -> new HashMap<>())
+                    .computeIfAbsent(message.getRoom().toLowerCase(), k -> new RemoteRoom(message.getServer(), message.getRoom()))
+                    .update(message, now);
+            case ROOM_REMOVED -> {
+                Map<String, RemoteRoom> rooms = remoteRooms.get(message.getServer());
+                if (rooms != null) {
+                    rooms.remove(message.getRoom().toLowerCase());
+                    if (rooms.isEmpty()) remoteRooms.remove(message.getServer());
+                }
+            }
+            case QUEUE_REQUEST -> {
+                if (!message.getTarget().equals(serverId)) return;
+
+                Player player = Bukkit.getPlayer(message.getPlayerId());
+                if (player != null) {
+                    plugin.getQueueManager().joinQueue(player, message.getType());
+                } else {
+                    arrivals.put(message.getPlayerId(), new Arrival(message.getType(), now));
+                }
+            }
+        }
+    }
+
+    private void flush() {
+        long now = System.currentTimeMillis();
+        if (now - lastHeartbeat >= heartbeatMillis) {
+            lastHeartbeat = now;
+            // The full announcement covers every changed room but not the removed ones
+            for (Map.Entry<String, BattleRoom> entry : changedRooms.entrySet()) {
+                if (entry.getValue() == null) {
+                    bus.publish(NetworkMessage.roomRemoved(serverId, entry.getKey()));
+                }
+            }
+            changedRooms.clear();
+            for (BattleRoom room : plugin.getRoomManager().getRooms().values()) {
+                publishState(room);
+            }
+            expire(now);
+        } else if (!changedRooms.isEmpty()) {
+            for (Map.Entry<String, BattleRoom> entry : changedRooms.entrySet()) {
+                if (entry.getValue() == null) {
+                    bus.publish(NetworkMessage.roomRemoved(serverId, entry.getKey()));
+                } else {
+                    publishState(entry.getValue());
+                }
+            }
+            changedRooms.clear();
+        }
+    }
+
+    private void publishState(BattleRoom room) {
+        bus.publish(NetworkMessage.roomState(serverId, room.getName(), room.getType(), room.getState(), room.getPlayerCount()));
+    }
+
+    /**
+     * Forget remote rooms that missed three heartbeats and players who never arrived
+     */
+    private void expire(long now) {
+        for (Iterator<Map<String, RemoteRoom>> servers = remoteRooms.values().iterator(); servers.hasNext(); ) {
+            Map<String, RemoteRoom> rooms = servers.next();
+            rooms.values().removeIf(room -> now - room.getLastSeen() > heartbeatMillis * 3);
+            if (rooms.isEmpty()) servers.remove();
+        }
+        arrivals.values().removeIf(arrival -> now - arrival.sentAt > ARRIVAL_TIMEOUT_MILLIS);
+    }
+
+    private static final class Arrival {
+        final BattleRoom.RoomType type;
+        final long sentAt;
+
+        Arrival(BattleRoom.RoomType type, long sentAt) {
+            this.type = type;
+            this.sentAt = sentAt;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.battlerooms.network;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Message bus between servers running in the same JVM, for tests and single-process setups.
+ * Messages are handed directly to the other buses on the same channel, on the publishing thread.
+ */
+public class LoopbackBus implements MessageBus {
+
+    private static final Map<String, Set<LoopbackBus>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private volatile Consumer<NetworkMessage> receiver;
+
+    public LoopbackBus(String channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public void start(Consumer<NetworkMessage> receiver) {
+        this.receiver = receiver;
+        CHANNELS.computeIfAbsent(channel, k -> ConcurrentHashMap.newKeySet()).add(this);
+    }
+
+    @Override
+    public void publish(NetworkMessage message) {
+        Set<LoopbackBus> buses = CHANNELS.get(channel);
+        if (buses == null) return;
+
+        for (LoopbackBus bus : buses) {
+            Consumer<NetworkMessage> target = bus.receiver;
+            if (bus != this && target != null) {
+                target.accept(message);
+            }
+        }
+    }
+
+    @Override
+    public String describe() {
+        Set<LoopbackBus> buses = CHANNELS.get(channel);
+        return "loopback channel " + channel + " with " + (buses == null ? 0 : buses.size()) + " servers";
+    }
+
+    @Override
+    public void close() {
+        receiver = null;
+        Set<LoopbackBus> buses = CHANNELS.get(channel);
+        if (buses != null) {
+            buses.remove(this);
+        }
+    }
+}
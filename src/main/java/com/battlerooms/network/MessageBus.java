@@ -0,0 +1,28 @@
+package com.battlerooms.network;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Transport that carries network messages between the servers of an arena network.
+ * Implementations must never block the caller of publish, and may deliver received messages on any thread.
+ */
+public interface MessageBus {
+
+    /**
+     * Start delivering messages from other servers to the receiver
+     */
+    void start(Consumer<NetworkMessage> receiver) throws IOException;
+
+    /**
+     * Send a message to every other server on the bus
+     */
+    void publish(NetworkMessage message);
+
+    /**
+     * Describe the transport and its connection state, for /battlerooms network
+     */
+    String describe();
+
+    void close();
+}
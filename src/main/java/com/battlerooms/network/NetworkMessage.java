@@ -0,0 +1,137 @@
+package com.battlerooms.network;
+
+import com.battlerooms.models.BattleRoom;
+
+import java.util.UUID;
+
+/**
+ * Immutable message exchanged between the servers of an arena network
+ */
+public final class NetworkMessage {
+
+    /**
+     * What a message announces
+     */
+    public enum Kind {
+        ROOM_STATE,    // State and player count of a room
+        ROOM_REMOVED,  // A room was deleted or its server is stopping
+        QUEUE_REQUEST  // A player is being sent to a server to queue for a room type
+    }
+
+    private final Kind kind;
+    private final String server;
+    private final String room;
+    private final BattleRoom.RoomType type;
+    private final BattleRoom.RoomState state;
+    private final int players;
+    private final String target;
+    private final UUID playerId;
+
+    private NetworkMessage(Kind kind, String server, String room, BattleRoom.RoomType type,
+                           BattleRoom.RoomState state, int players, String target, UUID playerId) {
+        this.kind = kind;
+        this.server = server;
+        this.room = room;
+        this.type = type;
+        this.state = state;
+        this.players = players;
+        this.target = target;
+        this.playerId = playerId;
+    }
+
+    public static NetworkMessage roomState(String server, String room, BattleRoom.RoomType type,
+                                           BattleRoom.RoomState state, int players) {
+        return new NetworkMessage(Kind.ROOM_STATE, server, room, type, state, players, null, null);
+    }
+
+    public static NetworkMessage roomRemoved(String server, String room) {
+        return new NetworkMessage(Kind.ROOM_REMOVED, server, room, null, null, 0, null, null);
+    }
+
+    public static NetworkMessage queueRequest(String server, String target, UUID playerId, BattleRoom.RoomType type) {
+        return new NetworkMessage(Kind.QUEUE_REQUEST, server, null, type, null, 0, target, playerId);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the id of the server that sent the message
+     */
+    public String getServer() {
+        return server;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public BattleRoom.RoomType getType() {
+        return type;
+    }
+
+    public BattleRoom.RoomState getState() {
+        return state;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    /**
+     * Get the id of the server a queue request is meant for
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * Encode the message as one tab-separated line, without the line break
+     */
+    public String encode() {
+        return switch (kind) {
+            case ROOM_STATE -> kind + "\t" + server + "\t" + room + "\t" + type.getDisplayName() + "\t" + state + "\t" + players;
+            case ROOM_REMOVED -> kind + "\t" + server + "\t" + room;
+            case QUEUE_REQUEST -> kind + "\t" + server + "\t" + target + "\t" + playerId + "\t" + type.getDisplayName();
+        };
+    }
+
+    /**
+     * Decode a line, returning null if it is damaged or from an incompatible version
+     */
+    public static NetworkMessage decode(String line) {
+        String[] fields = line.split("\t", -1);
+        try {
+            Kind kind = Kind.valueOf(fields[0]);
+            switch (kind) {
+                case ROOM_STATE -> {
+                    if (fields.length != 6) return null;
+                    BattleRoom.RoomType type = BattleRoom.RoomType.fromString(fields[3]);
+                    if (type == null) return null;
+                    return roomState(fields[1], fields[2], type, BattleRoom.RoomState.valueOf(fields[4]),
+                            Integer.parseInt(fields[5]));
+                }
+                case ROOM_REMOVED -> {
+                    if (fields.length != 3) return null;
+                    return roomRemoved(fields[1], fields[2]);
+                }
+                case QUEUE_REQUEST -> {
+                    if (fields.length != 5) return null;
+                    BattleRoom.RoomType type = BattleRoom.RoomType.fromString(fields[4]);
+                    if (type == null) return null;
+                    return queueRequest(fields[1], fields[2], UUID.fromString(fields[3]), type);
+                }
+                default -> {
+                    return null;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
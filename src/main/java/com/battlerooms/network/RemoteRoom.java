@@ -0,0 +1,66 @@
+package com.battlerooms.network;
+
+import com.battlerooms.models.BattleRoom;
+
+/**
+ * Last known state of a room on another server of the arena network
+ */
+public class RemoteRoom {
+
+    private final String server;
+    private final String name;
+    private BattleRoom.RoomType type;
+    private BattleRoom.RoomState state;
+    private int players;
+    private long lastSeen;
+
+    RemoteRoom(String server, String name) {
+        this.server = server;
+        this.name = name;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BattleRoom.RoomType getType() {
+        return type;
+    }
+
+    public BattleRoom.RoomState getState() {
+        return state;
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    /**
+     * Check if the room is open and has space for another player
+     */
+    public boolean hasSpace() {
+        return state == BattleRoom.RoomState.WAITING && players < type.getRequiredPlayers();
+    }
+
+    long getLastSeen() {
+        return lastSeen;
+    }
+
+    void update(NetworkMessage message, long now) {
+        this.type = message.getType();
+        this.state = message.getState();
+        this.players = message.getPlayers();
+        this.lastSeen = now;
+    }
+
+    /**
+     * Count a player sent to the room before its server has confirmed them
+     */
+    void reservePlace() {
+        players++;
+    }
+}
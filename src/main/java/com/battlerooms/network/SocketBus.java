@@ -0,0 +1,350 @@
+package com.battlerooms.network;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Message bus over a Unix domain socket file, for servers on the same machine.
+ * The first server to start binds the socket and becomes the hub, relaying every line it receives
+ * to the other servers; the rest connect to it as clients. A client that loses the hub reconnects,
+ * or becomes the hub itself if the socket is gone. Only the holder of a lock on a sibling ".lock" file
+ * may replace the socket and act as hub, so servers starting together cannot unlink each other's socket.
+ * <p>
+ * Messages are queued and written by a background thread, so publishing never blocks;
+ * messages published while the queue is full are dropped and counted. Closing the bus sends what is
+ * still queued first, waiting a bounded time for it.
+ */
+public class SocketBus implements MessageBus {
+
+    private static final long RECONNECT_MILLIS = 2000L;
+    private static final long POLL_MILLIS = 250L;
+    private static final long DRAIN_MILLIS = 2000L;
+    private static final int QUEUE_CAPACITY = 4096;
+
+    private final Path path;
+    private final Path lockPath;
+    private final Logger logger;
+    private final BlockingQueue<Outgoing> outgoing;
+    private final Set<SocketChannel> connections;
+    private final AtomicLong dropped;
+    private volatile Consumer<NetworkMessage> receiver;
+    private volatile boolean running;
+    private volatile boolean hub;
+    private volatile ServerSocketChannel server;
+    private Thread connectionThread;
+    private Thread writerThread;
+
+    public SocketBus(Path path, Logger logger) {
+        this.path = path;
+        this.lockPath = path.resolveSibling(path.getFileName() + ".lock");
+        this.logger = logger;
+        this.outgoing = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.dropped = new AtomicLong();
+    }
+
+    @Override
+    public void start(Consumer<NetworkMessage> receiver) {
+        this.receiver = receiver;
+        running = true;
+
+        connectionThread = new Thread(this::maintainConnection, "BattleRooms-NetworkBus");
+        connectionThread.setDaemon(true);
+        connectionThread.start();
+
+        writerThread = new Thread(this::writeLoop, "BattleRooms-NetworkWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void publish(NetworkMessage message) {
+        if (!outgoing.offer(new Outgoing(message.encode(), null))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public String describe() {
+        String role = hub ? "hub for " + connections.size() + " servers" : connections.isEmpty() ? "connecting" : "connected to hub";
+        return "socket " + path + " (" + role + ", " + dropped.get() + " messages dropped)";
+    }
+
+    /**
+     * Send the messages that are still queued, such as the removal of the local rooms, then leave the network.
+     * The hub removes its socket so that the remaining servers elect a new one.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            // The writer keeps going until the queue is empty; closing the connections below unblocks a stuck write
+            if (writerThread != null) writerThread.join(DRAIN_MILLIS);
+            closeQuietly(server);
+            for (SocketChannel connection : connections) {
+                closeQuietly(connection);
+            }
+            if (writerThread != null) writerThread.join(DRAIN_MILLIS);
+            if (connectionThread != null) connectionThread.join(DRAIN_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Connect to the hub, or become the hub when there is none, and start over whenever that fails
+     */
+    private void maintainConnection() {
+        UnixDomainSocketAddress address = UnixDomainSocketAddress.of(path);
+        while (running) {
+            long delay = RECONNECT_MILLIS;
+            try {
+                SocketChannel channel = connect(address);
+                if (channel != null) {
+                    hub = false;
+                    connections.add(channel);
+                    logger.info("Connected to the arena network hub at " + path);
+                    readLines(channel);
+                } else if (!serveAsHub(address)) {
+                    // Another server holds the hub lock and is about to listen, connect to it soon
+                    delay = POLL_MILLIS;
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logger.log(Level.FINE, "Arena network connection lost", e);
+                }
+            }
+            if (!running) break;
+
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Connect to a running hub, returning null if nobody is listening on the socket
+     */
+    private SocketChannel connect(UnixDomainSocketAddress address) {
+        if (!Files.exists(path)) return null;
+        try {
+            SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                channel.connect(address);
+                return channel;
+            } catch (IOException e) {
+                channel.close();
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Become the hub if no other server holds the hub lock, serving until the bus closes or the socket is taken over.
+     * Returns false without waiting if another server holds the lock.
+     */
+    private boolean serveAsHub(UnixDomainSocketAddress address) throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = tryLock(lockChannel)) {
+            // Another server is hub or about to become it
+            if (lock == null) return false;
+
+            // Nobody answered on the socket and only the lock holder binds it, so a file left behind is stale
+            Files.deleteIfExists(path);
+            ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                channel.bind(address);
+                channel.configureBlocking(false);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+
+            Object socketKey = getFileKey();
+            server = channel;
+            hub = true;
+            logger.info("Hosting the arena network hub at " + path);
+            try {
+                acceptClients(channel, socketKey);
+            } finally {
+                closeQuietly(channel);
+                hub = false;
+                if (running) {
+                    // Stepping down while the bus stays open, send the connected servers to the new hub;
+                    // on close the connections stay up until the queued messages are sent
+                    for (SocketChannel connection : connections) {
+                        closeQuietly(connection);
+                    }
+                }
+                // Remove the socket while still holding the lock, unless another process replaced it
+                if (socketKey == null || socketKey.equals(getFileKey())) {
+                    Files.deleteIfExists(path);
+                }
+            }
+            return true;
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by another bus in this JVM
+            return null;
+        }
+    }
+
+    /**
+     * Get the identity of the file at the socket path, or null if it is missing or the platform has none
+     */
+    private Object getFileKey() {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Accept servers until the bus closes, checking now and then that the socket path still leads to this hub
+     */
+    private void acceptClients(ServerSocketChannel channel, Object socketKey) throws IOException {
+        long nextCheck = System.currentTimeMillis() + RECONNECT_MILLIS;
+        while (running) {
+            SocketChannel client = channel.accept();
+            if (client == null) {
+                if (System.currentTimeMillis() >= nextCheck) {
+                    nextCheck = System.currentTimeMillis() + RECONNECT_MILLIS;
+                    if (socketKey != null && !socketKey.equals(getFileKey())) {
+                        logger.warning("The arena network socket " + path + " was removed or replaced, reconnecting");
+                        return;
+                    }
+                }
+                try {
+                    Thread.sleep(POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                continue;
+            }
+
+            // Accepted channels are blocking regardless of the server channel
+            connections.add(client);
+            Thread reader = new Thread(() -> {
+                try {
+                    readLines(client);
+                } catch (IOException e) {
+                    // The server disconnected
+                }
+            }, "BattleRooms-NetworkReader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+    }
+
+    /**
+     * Deliver every line received on a connection until it closes; the hub also relays it to the other servers
+     */
+    private void readLines(SocketChannel channel) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (hub && !outgoing.offer(new Outgoing(line, channel))) {
+                    dropped.incrementAndGet();
+                }
+
+                NetworkMessage message = NetworkMessage.decode(line);
+                Consumer<NetworkMessage> target = receiver;
+                if (message != null && target != null) {
+                    try {
+                        target.accept(message);
+                    } catch (RuntimeException e) {
+                        logger.log(Level.WARNING, "Could not handle arena network message", e);
+                    }
+                }
+            }
+        } finally {
+            connections.remove(channel);
+            closeQuietly(channel);
+        }
+    }
+
+    private void writeLoop() {
+        // Keep draining after close() until everything queued has been sent
+        while (running || !outgoing.isEmpty()) {
+            Outgoing message;
+            try {
+                message = outgoing.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (message == null) continue;
+
+            byte[] bytes = (message.line + '\n').getBytes(StandardCharsets.UTF_8);
+            for (SocketChannel connection : connections) {
+                if (connection == message.source) continue;
+                try {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    while (buffer.hasRemaining()) {
+                        connection.write(buffer);
+                    }
+                } catch (IOException e) {
+                    // The reader of this connection notices the failure and cleans up
+                    closeQuietly(connection);
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Channel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+    }
+
+    /**
+     * A line to send, and the connection it came from when the hub relays it
+     */
+    private static final class Outgoing {
+        final String line;
+        final SocketChannel source;
+
+        Outgoing(String line, SocketChannel source) {
+            this.line = line;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.battlerooms.ratings;
+
+import com.battlerooms.BattleRooms;
+import com.battlerooms.history.MatchRecord;
+import com.battlerooms.models.BattleRoom;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Elo ratings per room type, updated whenever a match ends.
+ * Ratings live in memory in one ladder per room type and changed entries are written behind
+ * to the rating store every few seconds. Only used from the main thread.
+ */
+public class PlayerRatings {
+
+    private final BattleRooms plugin;
+    private final RatingStore store;
+    private final Map<BattleRoom.RoomType, RatingLadder> ladders;
+    private final Map<String, UUID> playerIdsByName;
+    private final Set<RatingEntry> dirty;
+    private final double initialRating;
+    private final double kFactor;
+    private BukkitTask flushTask;
+
+    public PlayerRatings(BattleRooms plugin) {
+        this.plugin = plugin;
+        this.store = new RatingStore(new File(plugin.getDataFolder(), "ratings").toPath(), plugin.getLogger());
+        this.ladders = new EnumMap<>(BattleRoom.RoomType.class);
+        for (BattleRoom.RoomType type : BattleRoom.RoomType.values()) {
+            ladders.put(type, new RatingLadder());
+        }
+        this.playerIdsByName = new HashMap<>();
+        this.dirty = new LinkedHashSet<>();
+        this.initialRating = plugin.getConfigManager().getInitialRating();
+        this.kFactor = plugin.getConfigManager().getRatingKFactor();
+    }
+
+    /**
+     * Load the stored ratings and start writing changes behind
+     */
+    public void start() {
+        try {
+            List<RatingEntry> loaded = store.load();
+            for (RatingEntry entry : loaded) {
+                ladders.get(entry.getType()).add(entry);
+                playerIdsByName.put(entry.getName().toLowerCase(), entry.getPlayerId());
+            }
+            plugin.getLogger().info("Loaded " + loaded.size() + " player ratings.");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not load player ratings", e);
+        }
+        store.start();
+
+        long interval = Math.max(1, plugin.getConfigManager().getRatingFlushInterval()) * 20L;
+        flushTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    /**
+     * Write the remaining changes and stop the background writer
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flush();
+        store.shutdown();
+    }
+
+    /**
+     * Update the ratings of everyone in a finished match. Matches cut short by removing the room are not rated.
+     * Every pair of teams counts as one Elo game: the winning team beats every other team
+     * and teams without a result against each other draw. A team's change is the average over its games,
+     * applied to each of its players and computed from the average rating of the team.
+     */
+    public void update(MatchRecord record) {
+        if (record.getCause() == MatchRecord.EndCause.ROOM_REMOVED || record.getPlayerCount() == 0) return;
+
+        RatingLadder ladder = ladders.get(record.getType());
+        int teamCount = record.getType().getTeamCount();
+        double[] teamRating = new double[teamCount];
+        int[] teamSize = new int[teamCount];
+        RatingEntry[] entries = new RatingEntry[record.getPlayerCount()];
+
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = getOrCreate(ladder, record, i);
+            int team = record.getTeam(i);
+            teamRating[team] += entries[i].getRating();
+            teamSize[team]++;
+        }
+
+        int teamsPlaying = 0;
+        for (int team = 0; team < teamCount; team++) {
+            if (teamSize[team] > 0) {
+                teamRating[team] /= teamSize[team];
+                teamsPlaying++;
+            }
+        }
+        if (teamsPlaying < 2) return;
+
+        double[] change = new double[teamCount];
+        int winner = record.getWinningTeam();
+        for (int team = 0; team < teamCount; team++) {
+            if (teamSize[team] == 0) continue;
+
+            double delta = 0;
+            for (int other = 0; other < teamCount; other++) {
+                if (other == team || teamSize[other] == 0) continue;
+                double expected = 1.0 / (1.0 + Math.pow(10.0, (teamRating[other] - teamRating[team]) / 400.0));
+                double score = winner == team ? 1.0 : winner == other ? 0.0 : 0.5;
+                delta += score - expected;
+            }
+            change[team] = kFactor * delta / (teamsPlaying - 1);
+        }
+
+        for (int i = 0; i < entries.length; i++) {
+            RatingEntry entry = entries[i];
+            ladder.setRating(entry, entry.getRating() + change[record.getTeam(i)]);
+            entry.addGame(record.isWinner(i));
+            dirty.add(entry);
+        }
+    }
+
+    /**
+     * Get the rating of a player in a room type, or null if they have not played it
+     */
+    public RatingEntry getRating(UUID playerId, BattleRoom.RoomType type) {
+        return ladders.get(type).get(playerId);
+    }
+
+    /**
+     * Get the rating of a player in a room type, or the initial rating if they have not played it
+     */
+    public double getRatingValue(UUID playerId, BattleRoom.RoomType type) {
+        RatingEntry entry = ladders.get(type).get(playerId);
+        return entry == null ? initialRating : entry.getRating();
+    }
+
+    /**
+     * Get the 1-based rank of a player in a room type, or 0 if they have not played it
+     */
+    public int getRank(UUID playerId, BattleRoom.RoomType type) {
+        return ladders.get(type).getRank(playerId);
+    }
+
+    /**
+     * Get up to count players of a room type starting at a 1-based rank, best first
+     */
+    public List<RatingEntry> getTop(BattleRoom.RoomType type, int fromRank, int count) {
+        return ladders.get(type).getRange(fromRank, count);
+    }
+
+    public int getRankedPlayers(BattleRoom.RoomType type) {
+        return ladders.get(type).size();
+    }
+
+    /**
+     * Find a rated player by their last known name
+     */
+    public UUID findPlayerId(String name) {
+        return playerIdsByName.get(name.toLowerCase());
+    }
+
+    public int getPendingWrites() {
+        return dirty.size();
+    }
+
+    private RatingEntry getOrCreate(RatingLadder ladder, MatchRecord record, int index) {
+        UUID playerId = record.getPlayer(index);
+        String name = record.getPlayerName(index);
+        playerIdsByName.put(name.toLowerCase(), playerId);
+
+        RatingEntry entry = ladder.get(playerId);
+        if (entry == null) {
+            entry = new RatingEntry(playerId, record.getType(), name, initialRating, 0, 0);
+            ladder.add(entry);
+        } else {
+            entry.setName(name);
+        }
+        return entry;
+    }
+
+    private void flush() {
+        if (dirty.isEmpty()) return;
+        store.append(RatingStore.encode(dirty));
+        dirty.clear();
+    }
+}
@@ -0,0 +1,77 @@
+package com.battlerooms.ratings;
+
+import com.battlerooms.models.BattleRoom;
+
+import java.util.UUID;
+
+/**
+ * Rating and record of one player in one room type
+ */
+public class RatingEntry {
+
+    private final UUID playerId;
+    private final BattleRoom.RoomType type;
+    private String name;
+    private double rating;
+    private int games;
+    private int wins;
+
+    RatingEntry(UUID playerId, BattleRoom.RoomType type, String name, double rating, int games, int wins) {
+        this.playerId = playerId;
+        this.type = type;
+        this.name = name;
+        this.rating = rating;
+        this.games = games;
+        this.wins = wins;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public BattleRoom.RoomType getType() {
+        return type;
+    }
+
+    /**
+     * Get the name the player had in their latest match
+     */
+    public String getName() {
+        return name;
+    }
+
+    public double getRating() {
+        return rating;
+    }
+
+    /**
+     * Get the rating rounded for display
+     */
+    public int getDisplayRating() {
+        return (int) Math.round(rating);
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Only changed through RatingLadder, which has to move the entry to its new position
+     */
+    void setRating(double rating) {
+        this.rating = rating;
+    }
+
+    void addGame(boolean won) {
+        games++;
+        if (won) wins++;
+    }
+}
@@ -0,0 +1,225 @@
+package com.battlerooms.ratings;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Players of one room type ordered by rating, highest first.
+ * The order is kept in an indexable skip list: every link stores how many positions it skips,
+ * so both the rank of a player and the player at a rank are found in O(log n) without sorting.
+ * Ties are broken by UUID so every player has a distinct position.
+ */
+class RatingLadder {
+
+    private static final int MAX_LEVEL = 16; // Plenty for 4^16 players with a 1/4 promotion chance
+
+    private final Node head;
+    private final Map<UUID, RatingEntry> entries;
+    private final Node[] update;
+    private final int[] passed;
+    private int level;
+    private int size;
+
+    RatingLadder() {
+        this.head = new Node(MAX_LEVEL, 0, 0, 0, null);
+        this.entries = new HashMap<>();
+        this.update = new Node[MAX_LEVEL];
+        this.passed = new int[MAX_LEVEL];
+        this.level = 1;
+    }
+
+    RatingEntry get(UUID playerId) {
+        return entries.get(playerId);
+    }
+
+    int size() {
+        return size;
+    }
+
+    Collection<RatingEntry> getEntries() {
+        return entries.values();
+    }
+
+    /**
+     * Add a player who is not on the ladder yet
+     */
+    void add(RatingEntry entry) {
+        if (entries.putIfAbsent(entry.getPlayerId(), entry) != null) {
+            throw new IllegalArgumentException("Player is already on the ladder");
+        }
+        insert(entry);
+    }
+
+    /**
+     * Change the rating of a player on the ladder and move them to their new position
+     */
+    void setRating(RatingEntry entry, double rating) {
+        delete(entry);
+        entry.setRating(rating);
+        insert(entry);
+    }
+
+    /**
+     * Get the 1-based rank of a player, or 0 if they are not on the ladder
+     */
+    int getRank(UUID playerId) {
+        RatingEntry entry = entries.get(playerId);
+        if (entry == null) return 0;
+
+        double rating = entry.getRating();
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], rating, most, least) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x.entry == entry) return rank;
+        }
+        return 0;
+    }
+
+    /**
+     * Get up to count players starting at a 1-based rank
+     */
+    List<RatingEntry> getRange(int fromRank, int count) {
+        List<RatingEntry> range = new ArrayList<>(Math.max(0, Math.min(count, size - fromRank + 1)));
+        Node x = getNode(fromRank);
+        while (x != null && range.size() < count) {
+            range.add(x.entry);
+            x = x.next[0];
+        }
+        return range;
+    }
+
+    private Node getNode(int rank) {
+        if (rank < 1 || rank > size) return null;
+
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) return x;
+        }
+        return null;
+    }
+
+    private void insert(RatingEntry entry) {
+        double rating = entry.getRating();
+        long most = entry.getPlayerId().getMostSignificantBits();
+        long least = entry.getPlayerId().getLeastSignificantBits();
+
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            passed[i] = i == level - 1 ? 0 : passed[i + 1];
+            while (x.next[i] != null && compare(x.next[i], rating, most, least) < 0) {
+                passed[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                passed[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        x = new Node(nodeLevel, rating, most, least, entry);
+        for (int i = 0; i < nodeLevel; i++) {
+            x.next[i] = update[i].next[i];
+            update[i].next[i] = x;
+            // Split the skipped distance of the link the node was spliced into
+            x.span[i] = update[i].span[i] - (passed[0] - passed[i]);
+            update[i].span[i] = passed[0] - passed[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    private void delete(RatingEntry entry) {
+        double rating = entry.getRating();
+        long most = entry.getPlayerId().getMostSignificantBits();
+        long least = entry.getPlayerId().getLeastSignificantBits();
+
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], rating, most, least) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        x = x.next[0];
+        if (x == null || x.entry != entry) {
+            throw new IllegalStateException("Rating changed outside of the ladder");
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    /**
+     * Compare a node to a position, negative if the node is ranked before it
+     */
+    private static int compare(Node node, double rating, long most, long least) {
+        int order = Double.compare(rating, node.rating);
+        if (order != 0) return order;
+        order = Long.compare(node.most, most);
+        return order != 0 ? order : Long.compare(node.least, least);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextInt(4) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static class Node {
+        final double rating;
+        final long most;
+        final long least;
+        final RatingEntry entry;
+        final Node[] next;
+        final int[] span; // Number of positions each link moves forward
+
+        Node(int level, double rating, long most, long least, RatingEntry entry) {
+            this.rating = rating;
+            this.most = most;
+            this.least = least;
+            this.entry = entry;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.battlerooms.ratings;
+
+import com.battlerooms.models.BattleRoom;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * File-backed rating store made of a full snapshot and a journal of changed entries.
+ * Changed entries are appended to the journal on a background thread; once the journal
+ * outgrows the snapshot, the same thread folds it into a new snapshot.
+ * <p>
+ * Entry layout (big endian): UUID as two longs, room type and player name as modified UTF-8,
+ * rating (double), games (int), wins (int). The snapshot starts with magic "BRRT",
+ * version (short) and entry count (int); the journal is just entries, later ones winning.
+ */
+class RatingStore {
+
+    private static final int MAGIC = 0x42525254; // "BRRT"
+    private static final short VERSION = 1;
+    private static final long MIN_COMPACT_BYTES = 1024 * 1024;
+
+    private final Path snapshot;
+    private final Path journal;
+    private final Logger logger;
+    private final ExecutorService executor;
+
+    // Only touched by the writer thread
+    private long journalBytes;
+    private long snapshotBytes;
+
+    RatingStore(Path folder, Logger logger) {
+        this.snapshot = folder.resolve("ratings.dat");
+        this.journal = folder.resolve("ratings.journal");
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BattleRooms-RatingWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Read the snapshot and replay the journal on top of it
+     */
+    List<RatingEntry> load() throws IOException {
+        Map<BattleRoom.RoomType, Map<UUID, RatingEntry>> entries = readAll();
+        List<RatingEntry> loaded = new ArrayList<>();
+        for (Map<UUID, RatingEntry> byPlayer : entries.values()) {
+            loaded.addAll(byPlayer.values());
+        }
+        return loaded;
+    }
+
+    /**
+     * Start accepting writes. A journal left from the previous run is compacted first,
+     * which also drops an entry that was cut short by a crash before anything is appended behind it.
+     */
+    void start() {
+        executor.execute(() -> {
+            try {
+                snapshotBytes = Files.exists(snapshot) ? Files.size(snapshot) : 0;
+                journalBytes = Files.exists(journal) ? Files.size(journal) : 0;
+                if (journalBytes > 0) {
+                    compact();
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Could not compact the rating journal", e);
+            }
+        });
+    }
+
+    /**
+     * Append encoded entries to the journal in the background
+     */
+    void append(byte[] entries) {
+        executor.execute(() -> {
+            try {
+                Files.createDirectories(journal.getParent());
+                Files.write(journal, entries, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                journalBytes += entries.length;
+                if (journalBytes > Math.max(MIN_COMPACT_BYTES, snapshotBytes)) {
+                    compact();
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Could not write ratings", e);
+            }
+        });
+    }
+
+    /**
+     * Wait for everything queued so far to be written and stop the writer thread
+     */
+    void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warning("Timed out waiting for ratings to be written");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encode entries for the journal
+     */
+    static byte[] encode(Collection<RatingEntry> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(entries.size() * 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (RatingEntry entry : entries) {
+                writeEntry(out, entry);
+            }
+        } catch (IOException e) {
+            // Writing to a byte array cannot fail
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Fold the journal into a new snapshot and start an empty journal
+     */
+    private void compact() throws IOException {
+        Map<BattleRoom.RoomType, Map<UUID, RatingEntry>> entries = readAll();
+        int count = 0;
+        for (Map<UUID, RatingEntry> byPlayer : entries.values()) {
+            count += byPlayer.size();
+        }
+
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        Files.createDirectories(snapshot.getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(count);
+            for (Map<UUID, RatingEntry> byPlayer : entries.values()) {
+                for (RatingEntry entry : byPlayer.values()) {
+                    writeEntry(out, entry);
+                }
+            }
+        }
+        try {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        // Replaying the journal over the new snapshot is harmless, so a crash before this point loses nothing
+        Files.deleteIfExists(journal);
+        journalBytes = 0;
+        snapshotBytes = Files.size(snapshot);
+    }
+
+    private Map<BattleRoom.RoomType, Map<UUID, RatingEntry>> readAll() throws IOException {
+        Map<BattleRoom.RoomType, Map<UUID, RatingEntry>> entries = new EnumMap<>(BattleRoom.RoomType.class);
+
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = open(snapshot)) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Not a BattleRooms rating store");
+                }
+                short version = in.readShort();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported rating store version " + version);
+                }
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    put(entries, readEntry(in));
+                }
+            }
+        }
+
+        if (Files.exists(journal)) {
+            try (DataInputStream in = open(journal)) {
+                while (true) {
+                    put(entries, readEntry(in));
+                }
+            } catch (EOFException e) {
+                // End of the journal, or an entry that was cut short by a crash
+            }
+        }
+        return entries;
+    }
+
+    private static DataInputStream open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        return new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+    }
+
+    private static void put(Map<BattleRoom.RoomType, Map<UUID, RatingEntry>> entries, RatingEntry entry) {
+        if (entry == null) return;
+        entries.computeIfAbsent(entry.getType(), k -> new HashMap<>()).put(entry.getPlayerId(), entry);
+    }
+
+    private static void writeEntry(DataOutputStream out, RatingEntry entry) throws IOException {
+        out.writeLong(entry.getPlayerId().getMostSignificantBits());
+        out.writeLong(entry.getPlayerId().getLeastSignificantBits());
+        out.writeUTF(entry.getType().getDisplayName());
+        out.writeUTF(entry.getName());
+        out.writeDouble(entry.getRating());
+        out.writeInt(entry.getGames());
+        out.writeInt(entry.getWins());
+    }
+
+    /**
+     * Read one entry, returning null for a room type that no longer exists
+     */
+    private static RatingEntry readEntry(DataInputStream in) throws IOException {
+        UUID playerId = new UUID(in.readLong(), in.readLong());
+        BattleRoom.RoomType type = BattleRoom.RoomType.fromString(in.readUTF());
+        String name = in.readUTF();
+        double rating = in.readDouble();
+        int games = in.readInt();
+        int wins = in.readInt();
+        return type == null ? null : new RatingEntry(playerId, type, name, rating, games, wins);
+    }
+}
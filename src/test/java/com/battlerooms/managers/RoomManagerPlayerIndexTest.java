@@ -0,0 +1,210 @@
+package com.battlerooms.managers;
+
+import com.battlerooms.models.BattleRoom;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives players through rooms and checks after every step that each player is indexed to exactly the room they are in.
+ * The manager runs without a plugin or configuration, as in the benchmarks, so matches are started by setting the
+ * room state directly and are never played to the end, which needs the configured messages and cooldown.
+ */
+class RoomManagerPlayerIndexTest {
+
+    private World world;
+    private RoomManager roomManager;
+    private BattleRoom red;
+    private BattleRoom blue;
+    private Player alice;
+    private Player bob;
+    private Player carol;
+
+    @BeforeAll
+    static void installServer() {
+        Stubs.installServer();
+    }
+
+    @BeforeEach
+    void setUp() {
+        world = Stubs.world("arena");
+        roomManager = new RoomManager(null, null);
+        red = room("red", 0);
+        blue = room("blue", 48);
+        roomManager.addRoom(red);
+        roomManager.addRoom(blue);
+
+        alice = Stubs.player("alice", world);
+        bob = Stubs.player("bob", world);
+        carol = Stubs.player("carol", world);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Stubs.clearPlayers();
+    }
+
+    @Test
+    void joinAndLeave() {
+        roomManager.handlePlayerEnterRoom(alice, red);
+        roomManager.handlePlayerEnterRoom(bob, red);
+        assertIndexConsistent();
+        assertSame(red, roomManager.getPlayerRoom(alice));
+
+        roomManager.handlePlayerLeaveRoom(alice, red);
+        assertIndexConsistent();
+        assertNull(roomManager.getPlayerRoom(alice));
+        assertFalse(red.hasPlayer(alice.getUniqueId()));
+        assertTrue(red.hasPlayer(bob.getUniqueId()));
+    }
+
+    @Test
+    void walkingIntoAnotherRoomLeavesTheFirst() {
+        roomManager.handlePlayerEnterRoom(alice, red);
+        roomManager.handlePlayerEnterRoom(alice, blue);
+
+        assertIndexConsistent();
+        assertSame(blue, roomManager.getPlayerRoom(alice));
+        assertFalse(red.hasPlayer(alice.getUniqueId()));
+    }
+
+    @Test
+    void playerInMatchCannotJoinAnotherRoom() {
+        startMatch(red, alice, bob, carol);
+
+        roomManager.handlePlayerEnterRoom(alice, blue);
+
+        assertIndexConsistent();
+        assertSame(red, roomManager.getPlayerRoom(alice));
+        assertFalse(blue.hasPlayer(alice.getUniqueId()));
+    }
+
+    @Test
+    void deathInMatch() {
+        startMatch(red, alice, bob, carol);
+
+        roomManager.handlePlayerDeath(alice);
+
+        assertIndexConsistent();
+        assertNull(roomManager.getPlayerRoom(alice));
+        assertEquals(2, red.getPlayerCount());
+
+        // Once eliminated the player is free to join another room
+        roomManager.handlePlayerEnterRoom(alice, blue);
+        assertIndexConsistent();
+        assertSame(blue, roomManager.getPlayerRoom(alice));
+    }
+
+    @Test
+    void quitInMatch() {
+        startMatch(red, alice, bob, carol);
+
+        roomManager.handlePlayerQuit(alice);
+
+        assertIndexConsistent();
+        assertNull(roomManager.getPlayerRoom(alice));
+        assertEquals(2, red.getPlayerCount());
+    }
+
+    @Test
+    void quitWhileWaiting() {
+        roomManager.handlePlayerEnterRoom(alice, red);
+
+        roomManager.handlePlayerQuit(alice);
+
+        assertIndexConsistent();
+        assertNull(roomManager.getPlayerRoom(alice));
+        assertEquals(0, red.getPlayerCount());
+    }
+
+    @Test
+    void deleteRoomsWithPlayers() {
+        startMatch(red, alice, bob, carol);
+        Player dave = Stubs.player("dave", world);
+        roomManager.handlePlayerEnterRoom(dave, blue);
+
+        // Deleting a room unregisters it like this before removing it from the configuration
+        roomManager.removeRoom("red");
+        roomManager.removeRoom("blue");
+
+        assertIndexConsistent();
+        assertNull(roomManager.getPlayerRoom(alice));
+        assertNull(roomManager.getPlayerRoom(dave));
+        assertEquals(0, red.getPlayerCount());
+        assertEquals(0, blue.getPlayerCount());
+    }
+
+    @Test
+    void replaceRoomWithPlayers() {
+        roomManager.handlePlayerEnterRoom(alice, red);
+        BattleRoom edited = room("red", 0);
+
+        roomManager.addRoom(edited);
+
+        assertIndexConsistent();
+        assertNull(roomManager.getPlayerRoom(alice));
+
+        roomManager.handlePlayerEnterRoom(alice, edited);
+        assertIndexConsistent();
+        assertSame(edited, roomManager.getPlayerRoom(alice));
+    }
+
+    @Test
+    void reloadRoomsWithPlayers() {
+        startMatch(red, alice, bob, carol);
+        Player dave = Stubs.player("dave", world);
+        roomManager.handlePlayerEnterRoom(dave, blue);
+
+        Map<String, BattleRoom> loaded = new HashMap<>();
+        loaded.put("red", room("red", 0));
+        loaded.put("blue", room("blue", 48));
+        roomManager.replaceRooms(loaded);
+
+        assertIndexConsistent();
+        assertNull(roomManager.getPlayerRoom(alice));
+        assertNull(roomManager.getPlayerRoom(dave));
+        assertEquals(0, roomManager.getRoom("red").getPlayerCount());
+
+        roomManager.handlePlayerEnterRoom(alice, roomManager.getRoom("red"));
+        assertIndexConsistent();
+        assertSame(roomManager.getRoom("red"), roomManager.getPlayerRoom(alice));
+    }
+
+    private BattleRoom room(String name, int x) {
+        Location pos1 = new Location(world, x, 64, 0);
+        Location pos2 = new Location(world, x + 15, 71, 15);
+        Location gate1 = new Location(world, x + 7, 65, 0);
+        Location gate2 = new Location(world, x + 8, 67, 0);
+        return new BattleRoom(name, BattleRoom.RoomType.FREE_FOR_ALL, world.getName(), pos1, pos2, gate1, gate2);
+    }
+
+    /**
+     * Put players into a free for all room, one short of filling it, and start the fight without the countdown
+     */
+    private void startMatch(BattleRoom room, Player... players) {
+        for (Player player : players) {
+            roomManager.handlePlayerEnterRoom(player, room);
+        }
+        room.setState(BattleRoom.RoomState.ACTIVE);
+        room.getTeams().assign(room.getPlayers(), room.getType().getTeamCount());
+        assertIndexConsistent();
+    }
+
+    private void assertIndexConsistent() {
+        assertEquals(List.of(), roomManager.verifyPlayerIndex());
+    }
+}
@@ -0,0 +1,115 @@
+package com.battlerooms.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Offline stand-ins for Bukkit types so the tests run without a server.
+ * Every method that is not explicitly answered returns the default value of its return type.
+ */
+final class Stubs {
+
+    private static final Map<UUID, Player> ONLINE = new ConcurrentHashMap<>();
+
+    private Stubs() {
+    }
+
+    /**
+     * Install a server that knows the stub players; Bukkit accepts only one server per JVM
+     */
+    static synchronized void installServer() {
+        if (Bukkit.getServer() != null) return;
+
+        Logger logger = Logger.getLogger("BattleRoomsTest");
+        BukkitTask task = proxy(BukkitTask.class, (proxy, method, args) -> common(proxy, method, args, UUID.randomUUID()));
+        BukkitScheduler scheduler = proxy(BukkitScheduler.class, (proxy, method, args) ->
+                method.getReturnType() == BukkitTask.class ? task : common(proxy, method, args, UUID.randomUUID()));
+        UUID serverId = UUID.randomUUID();
+
+        Bukkit.setServer(proxy(Server.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getLogger" -> logger;
+            case "getScheduler" -> scheduler;
+            case "getPlayer" -> args[0] instanceof UUID ? ONLINE.get(args[0]) : null;
+            case "getOfflinePlayer" -> args[0] instanceof UUID ? offlinePlayer((UUID) args[0]) : null;
+            default -> common(proxy, method, args, serverId);
+        }));
+    }
+
+    static World world(String name) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        return proxy(World.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getName" -> name;
+            case "getUID" -> uid;
+            case "getMinHeight" -> -64;
+            case "getMaxHeight" -> 320;
+            default -> common(proxy, method, args, uid);
+        });
+    }
+
+    /**
+     * Create a player and mark them online until the next call to {@link #clearPlayers()}
+     */
+    static Player player(String name, World world) {
+        UUID uid = UUID.nameUUIDFromBytes(name.getBytes());
+        Player player = proxy(Player.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getName" -> name;
+            case "getUniqueId" -> uid;
+            case "getWorld" -> world;
+            case "isOnline" -> ONLINE.containsKey(uid);
+            default -> common(proxy, method, args, uid);
+        });
+        ONLINE.put(uid, player);
+        return player;
+    }
+
+    static void clearPlayers() {
+        ONLINE.clear();
+    }
+
+    private static OfflinePlayer offlinePlayer(UUID uid) {
+        Player online = ONLINE.get(uid);
+        return proxy(OfflinePlayer.class, (proxy, method, args) -> switch (method.getName()) {
+            case "getName" -> online != null ? online.getName() : null;
+            case "getUniqueId" -> uid;
+            default -> common(proxy, method, args, uid);
+        });
+    }
+
+    private static Object common(Object proxy, Method method, Object[] args, UUID identity) {
+        return switch (method.getName()) {
+            case "hashCode" -> identity.hashCode();
+            case "equals" -> proxy == args[0];
+            case "toString" -> "Stub[" + identity + "]";
+            default -> defaultValue(method.getReturnType());
+        };
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) return null;
+        if (type == boolean.class) return false;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0F;
+        return 0D;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}